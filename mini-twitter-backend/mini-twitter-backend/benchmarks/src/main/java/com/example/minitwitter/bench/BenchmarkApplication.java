@@ -0,0 +1,29 @@
+package com.example.minitwitter.bench;
+
+import com.example.minitwitter.MiniTwitterApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+
+/**
+ * Boots the application on a random port against a private in-memory
+ * database seeded by the {@code seed} profile's dataset generator, so each
+ * benchmark trial starts from the same data.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {}
+
+    public static ConfigurableApplicationContext start(int users, int posts, int likesPerPost) {
+        return new SpringApplicationBuilder(MiniTwitterApplication.class)
+                .profiles("seed")
+                .run("--server.port=0",
+                        "--minitwitter.seed.users=" + users,
+                        "--minitwitter.seed.posts=" + posts,
+                        "--minitwitter.seed.likes-per-post=" + likesPerPost,
+                        "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+    }
+}
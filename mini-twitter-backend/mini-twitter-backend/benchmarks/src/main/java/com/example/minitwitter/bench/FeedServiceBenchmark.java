@@ -0,0 +1,98 @@
+package com.example.minitwitter.bench;
+
+import com.example.minitwitter.dto.FeedCursor;
+import com.example.minitwitter.dto.FeedPage;
+import com.example.minitwitter.dto.PostResponse;
+import com.example.minitwitter.service.LikeService;
+import com.example.minitwitter.service.PostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-level read and write paths against a seeded database of
+ * {@code users x posts x likesPerPost}. Run with {@code -p posts=...} to
+ * change the dataset size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FeedServiceBenchmark {
+
+    private static final Long CURRENT_USER_ID = 1L;
+
+    @Param("1000")
+    private int users;
+
+    @Param("5000")
+    private int posts;
+
+    @Param("5")
+    private int likesPerPost;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private LikeService likeService;
+    private String middleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(users, posts, likesPerPost);
+        postService = context.getBean(PostService.class);
+        likeService = context.getBean(LikeService.class);
+
+        // Cursor pointing halfway down the feed, to price deep pages
+        middleCursor = context.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT created_at, id FROM posts WHERE id = ?",
+                (rs, rowNum) -> new FeedCursor(rs.getObject(1, Timestamp.class).toLocalDateTime(),
+                        rs.getLong(2)).encode(),
+                (long) Math.max(1, posts / 2));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PostResponse> getAllPosts() {
+        return postService.getAllPosts(CURRENT_USER_ID);
+    }
+
+    @Benchmark
+    public FeedPage getFeedFirstPage() {
+        return postService.getFeedPage(null, 20, CURRENT_USER_ID);
+    }
+
+    @Benchmark
+    public FeedPage getFeedMiddlePage() {
+        return postService.getFeedPage(middleCursor, 20, CURRENT_USER_ID);
+    }
+
+    @Benchmark
+    public boolean toggleLike() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long postId = 1 + random.nextInt(posts);
+        return likeService.toggleLike(postId, 1L + random.nextInt(users));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.minitwitter.bench;
+
+import com.example.minitwitter.entity.Hashtag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Tag normalisation as done by {@code PostService.createPost} and the
+ * {@link Hashtag} constructor, against cheaper equivalents.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashtagNormalizationBenchmark {
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]");
+
+    @Param({"java", "#SpringBoot_3!", "Summer-Vibes 2024"})
+    private String tag;
+
+    @Benchmark
+    public String replaceAll() {
+        return tag.toLowerCase().replaceAll("[^a-z0-9]", "");
+    }
+
+    @Benchmark
+    public String precompiledPattern() {
+        return NON_ALPHANUMERIC.matcher(tag.toLowerCase()).replaceAll("");
+    }
+
+    @Benchmark
+    public String charLoop() {
+        StringBuilder cleaned = new StringBuilder(tag.length());
+        for (int i = 0; i < tag.length(); i++) {
+            char c = Character.toLowerCase(tag.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                cleaned.append(c);
+            }
+        }
+        return cleaned.toString();
+    }
+
+    @Benchmark
+    public Hashtag hashtagConstructor() {
+        return new Hashtag(tag);
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.minitwitter.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load driver for a running server, typically one started
+ * with the {@code seed} profile. Each worker logs in as a random
+ * {@code user<N>} and then runs a weighted mix of feed reads, likes,
+ * comments and posts, relogging every {@code --session-length} actions.
+ * When the server runs with {@code minitwitter.auth.mode=token} the access
+ * token returned by login is sent as a bearer header instead of a cookie.
+ * Reports throughput and latency percentiles per endpoint.
+ *
+ * <pre>
+ * java -jar benchmarks.jar load --url http://localhost:8080 --threads 32 --duration 60 --users 5000
+ * </pre>
+ */
+public class LoadDriver {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+    private final int users;
+    private final String password;
+    private final int sessionLength;
+    private final int[] weights;
+
+    LoadDriver(Map<String, String> options) {
+        baseUrl = options.getOrDefault("url", "http://localhost:8080");
+        users = Integer.parseInt(options.getOrDefault("users", "5000"));
+        password = options.getOrDefault("password", "password");
+        sessionLength = Integer.parseInt(options.getOrDefault("session-length", "50"));
+        // feed, home, like, comment, post
+        weights = Arrays.stream(options.getOrDefault("mix", "50,15,20,10,5").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        int threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        long warmupMillis = Long.parseLong(options.getOrDefault("warmup", "10")) * 1000;
+        long durationMillis = Long.parseLong(options.getOrDefault("duration", "60")) * 1000;
+
+        LoadDriver driver = new LoadDriver(options);
+        long measureFrom = System.currentTimeMillis() + warmupMillis;
+        long deadline = measureFrom + durationMillis;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Map<String, Samples>>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(pool.submit(() -> driver.runWorker(measureFrom, deadline)));
+        }
+        Map<String, Samples> merged = new TreeMap<>();
+        for (Future<Map<String, Samples>> worker : workers) {
+            worker.get().forEach((endpoint, samples) ->
+                    merged.computeIfAbsent(endpoint, e -> new Samples()).addAll(samples));
+        }
+        pool.shutdown();
+
+        report(merged, durationMillis, options.get("out"));
+    }
+
+    private Map<String, Samples> runWorker(long measureFrom, long deadline) {
+        Map<String, Samples> samples = new HashMap<>();
+        List<Long> postIds = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int total = Arrays.stream(weights).sum();
+
+        while (System.currentTimeMillis() < deadline) {
+            HttpClient client = HttpClient.newBuilder()
+                    .cookieHandler(new CookieManager())
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            String username = "user" + (1 + random.nextInt(users));
+            Map<String, String> login = Map.of("username", username, "password", password);
+            JsonNode loginResponse = call(client, null, samples, measureFrom, "POST /api/auth/login", "POST",
+                    "/api/auth/login", login);
+            if (loginResponse == null) {
+                continue;
+            }
+            String token = loginResponse.hasNonNull("accessToken") ? loginResponse.get("accessToken").asText() : null;
+
+            for (int action = 0; action < sessionLength && System.currentTimeMillis() < deadline; action++) {
+                int roll = random.nextInt(total);
+                if ((roll -= weights[0]) < 0 || postIds.isEmpty()) {
+                    collectIds(call(client, token, samples, measureFrom, "GET /api/posts/feed", "GET",
+                            "/api/posts/feed?limit=20", null), postIds);
+                } else if ((roll -= weights[1]) < 0) {
+                    collectIds(call(client, token, samples, measureFrom, "GET /api/posts/home", "GET",
+                            "/api/posts/home?limit=20", null), postIds);
+                } else if ((roll -= weights[2]) < 0) {
+                    long postId = postIds.get(random.nextInt(postIds.size()));
+                    call(client, token, samples, measureFrom, "PUT /api/posts/{id}/likes", "PUT",
+                            "/api/posts/" + postId + "/likes", null);
+                } else if ((roll -= weights[3]) < 0) {
+                    long postId = postIds.get(random.nextInt(postIds.size()));
+                    call(client, token, samples, measureFrom, "POST /api/posts/{id}/comments", "POST",
+                            "/api/posts/" + postId + "/comments", Map.of("content", "Load test reply"));
+                } else {
+                    call(client, token, samples, measureFrom, "POST /api/posts", "POST", "/api/posts",
+                            Map.of("content", "Load test post #loadtest", "hashtags", List.of("loadtest")));
+                }
+            }
+        }
+        return samples;
+    }
+
+    private JsonNode call(HttpClient client, String token, Map<String, Samples> samples, long measureFrom,
+                          String endpoint, String method, String path, Object body) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        JsonNode json = null;
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json");
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            request.method(method, body == null ? HttpRequest.BodyPublishers.noBody() :
+                    HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)));
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            ok = response.statusCode() / 100 == 2;
+            if (ok && response.body().length > 0) {
+                json = MAPPER.readTree(response.body());
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (System.currentTimeMillis() >= measureFrom) {
+            samples.computeIfAbsent(endpoint, k -> new Samples()).record(System.nanoTime() - start, ok);
+        }
+        return ok ? json : null;
+    }
+
+    private static void collectIds(JsonNode page, List<Long> postIds) {
+        if (page == null) {
+            return;
+        }
+        JsonNode posts = page.has("posts") ? page.get("posts") : page;
+        if (posts.size() > 0) {
+            postIds.clear();
+            for (JsonNode post : posts) {
+                postIds.add(post.path("id").asLong());
+            }
+        }
+    }
+
+    private static void report(Map<String, Samples> results, long durationMillis, String out) throws Exception {
+        double seconds = durationMillis / 1000.0;
+        Map<String, Map<String, Object>> json = new LinkedHashMap<>();
+        System.out.printf("%-32s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p999 ms", "Max ms");
+        for (Map.Entry<String, Samples> entry : results.entrySet()) {
+            Samples samples = entry.getValue();
+            samples.sort();
+            System.out.printf("%-32s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                    samples.size, samples.errors, samples.size / seconds, samples.percentile(0.50),
+                    samples.percentile(0.99), samples.percentile(0.999), samples.percentile(1.0));
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", samples.size);
+            row.put("errors", samples.errors);
+            row.put("throughput", samples.size / seconds);
+            row.put("p50", samples.percentile(0.50));
+            row.put("p99", samples.percentile(0.99));
+            row.put("p999", samples.percentile(0.999));
+            row.put("max", samples.percentile(1.0));
+            json.put(entry.getKey(), row);
+        }
+        if (out != null) {
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(new File(out), json);
+        }
+    }
+
+    /** Latencies in nanoseconds, kept raw so percentiles are exact. */
+    static class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private int errors;
+
+        void record(long latency, boolean ok) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latency;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.nanos[i], true);
+            }
+            errors += other.errors;
+        }
+
+        void sort() {
+            Arrays.sort(nanos, 0, size);
+        }
+
+        double percentile(double quantile) {
+            if (size == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * size) - 1;
+            return nanos[Math.max(0, Math.min(index, size - 1))] / 1_000_000.0;
+        }
+    }
+}
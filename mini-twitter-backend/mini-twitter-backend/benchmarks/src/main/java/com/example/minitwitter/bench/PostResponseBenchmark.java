@@ -0,0 +1,143 @@
+package com.example.minitwitter.bench;
+
+import com.example.minitwitter.config.PostJsonHttpMessageConverter;
+import com.example.minitwitter.dto.FeedPage;
+import com.example.minitwitter.dto.PostResponse;
+import com.example.minitwitter.entity.Hashtag;
+import com.example.minitwitter.entity.Post;
+import com.example.minitwitter.entity.User;
+import com.example.minitwitter.service.PostFragmentCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serialising one page of {@link PostResponse}s from
+ * already-loaded posts, field by field as the feed hydrator does from its
+ * rows, without any database access. The feed page
+ * pair compares plain Jackson with the fragment-cache converter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostResponseBenchmark {
+
+    @Param("20")
+    private int pageSize;
+
+    @Param({"0", "3"})
+    private int hashtagsPerPost;
+
+    private List<Post> posts;
+    private List<PostResponse> responses;
+    private ObjectMapper objectMapper;
+    private FeedPage feedPage;
+    private AnnotationConfigApplicationContext context;
+    private PostJsonHttpMessageConverter converter;
+    private final BufferMessage message = new BufferMessage();
+
+    @Setup
+    public void setUp() {
+        User user = new User("alice", "alice@example.com", "password", "Alice Example");
+        user.setId(1L);
+
+        posts = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Post post = new Post("Post number " + i + " with a reasonably sized body of text", user);
+            post.setId((long) i);
+            post.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+            for (int t = 0; t < hashtagsPerPost; t++) {
+                Hashtag hashtag = new Hashtag("tag" + t);
+                hashtag.setId((long) t);
+                post.addHashtag(hashtag);
+            }
+            posts.add(post);
+        }
+
+        responses = buildPage();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        feedPage = new FeedPage(responses, "next");
+
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(ObjectMapper.class, () -> objectMapper);
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.register(PostFragmentCache.class, PostJsonHttpMessageConverter.class);
+        context.refresh();
+        converter = context.getBean(PostJsonHttpMessageConverter.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PostResponse> buildPage() {
+        List<PostResponse> page = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            List<String> tags = new ArrayList<>(post.getHashtags().size());
+            for (Hashtag hashtag : post.getHashtags()) {
+                tags.add(hashtag.getTag());
+            }
+            page.add(new PostResponse(post.getId(), post.getContent(), post.getUser().getUsername(),
+                    post.getUser().getFullName(), post.getCreatedAt(), 12, 3, tags));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] serializeFeedPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(feedPage);
+    }
+
+    @Benchmark
+    public int writeCachedFeedPage() throws IOException {
+        message.body.reset();
+        converter.write(feedPage, FeedPage.class, MediaType.APPLICATION_JSON, message);
+        return message.body.size();
+    }
+
+    private static final class BufferMessage implements HttpOutputMessage {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(8192);
+
+        @Override
+        public OutputStream getBody() { return body; }
+
+        @Override
+        public HttpHeaders getHeaders() { return new HttpHeaders(); }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.minitwitter.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a controller parameter to the authenticated
+ * {@link com.example.minitwitter.dto.UserPrincipal}, or {@code null} for
+ * anonymous requests.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+}
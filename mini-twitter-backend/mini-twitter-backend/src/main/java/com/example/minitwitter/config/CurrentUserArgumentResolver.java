@@ -0,0 +1,43 @@
+package com.example.minitwitter.config;
+
+import com.example.minitwitter.dto.UserPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link CurrentUser} parameters from a verified bearer token
+ * first and from an existing login session otherwise. Never creates a
+ * session, so token-authenticated requests stay stateless.
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    public static final String ATTRIBUTE = "currentUser";
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && UserPrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        return resolve(webRequest.getNativeRequest(HttpServletRequest.class));
+    }
+
+    public static UserPrincipal resolve(HttpServletRequest request) {
+        Object principal = request.getAttribute(ATTRIBUTE);
+        if (principal == null) {
+            HttpSession session = request.getSession(false);
+            principal = session != null ? session.getAttribute(ATTRIBUTE) : null;
+        }
+        return (UserPrincipal) principal;
+    }
+}
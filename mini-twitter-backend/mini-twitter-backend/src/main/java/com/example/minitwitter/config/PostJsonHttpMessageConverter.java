@@ -0,0 +1,118 @@
+package com.example.minitwitter.config;
+
+import com.example.minitwitter.dto.FeedPage;
+import com.example.minitwitter.dto.PostResponse;
+import com.example.minitwitter.service.PostFragmentCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes {@link FeedPage}s and {@code List<PostResponse>}s from cached JSON
+ * fragments, splicing in the per-request counts and liked flag, so feed
+ * responses skip Jackson for everything that cannot change. The output is
+ * the same JSON the default converter produces.
+ */
+@Component
+public class PostJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final byte[] LIKE_COUNT = ascii(",\"likeCount\":");
+    private static final byte[] COMMENT_COUNT = ascii(",\"commentCount\":");
+    private static final byte[] LIKED_TRUE = ascii(",\"likedByCurrentUser\":true,");
+    private static final byte[] LIKED_FALSE = ascii(",\"likedByCurrentUser\":false,");
+    private static final byte[] PAGE_START = ascii("{\"posts\":");
+    private static final byte[] NEXT_CURSOR = ascii(",\"nextCursor\":");
+
+    @Autowired
+    private PostFragmentCache postFragmentCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public PostJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return FeedPage.class.equals(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (FeedPage.class.equals(clazz)) {
+            return true;
+        }
+        // A raw or wildcard List could hold anything, so only declared List<PostResponse> qualifies
+        return List.class.isAssignableFrom(clazz) && type instanceof ParameterizedType parameterized
+                && PostResponse.class.equals(parameterized.getActualTypeArguments()[0]);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream body = outputMessage.getBody();
+        if (value instanceof FeedPage page) {
+            body.write(PAGE_START);
+            writePosts(page.getPosts(), body);
+            body.write(NEXT_CURSOR);
+            body.write(objectMapper.writeValueAsBytes(page.getNextCursor()));
+            body.write('}');
+        } else {
+            writePosts((List<PostResponse>) value, body);
+        }
+    }
+
+    private void writePosts(List<PostResponse> posts, OutputStream body) throws IOException {
+        PostFragmentCache.Fragment[] fragments = postFragmentCache.getAll(posts);
+        body.write('[');
+        for (int i = 0; i < fragments.length; i++) {
+            PostResponse post = posts.get(i);
+            if (i > 0) {
+                body.write(',');
+            }
+            body.write(fragments[i].getHead());
+            body.write(LIKE_COUNT);
+            body.write(ascii(Integer.toString(post.getLikeCount())));
+            body.write(COMMENT_COUNT);
+            body.write(ascii(Integer.toString(post.getCommentCount())));
+            body.write(post.isLikedByCurrentUser() ? LIKED_TRUE : LIKED_FALSE);
+            body.write(fragments[i].getTail());
+        }
+        body.write(']');
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Feed responses are write-only", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Feed responses are write-only", inputMessage);
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
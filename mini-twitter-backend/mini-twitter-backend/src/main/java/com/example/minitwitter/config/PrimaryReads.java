@@ -0,0 +1,32 @@
+package com.example.minitwitter.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps the read-only transactions of a task on the primary when replicas
+ * are enabled, for work that has to see a write the moment it commits,
+ * such as after-commit listeners and the threads they hand off to.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> FORCED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> task) {
+        Boolean previous = FORCED.get();
+        FORCED.set(Boolean.TRUE);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                FORCED.remove();
+            }
+        }
+    }
+
+    static boolean isForced() {
+        return FORCED.get() != null;
+    }
+}
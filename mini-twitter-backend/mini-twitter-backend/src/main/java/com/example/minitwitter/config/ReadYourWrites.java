@@ -0,0 +1,124 @@
+package com.example.minitwitter.config;
+
+import com.example.minitwitter.dto.UserPrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a user's read-only transactions on the primary for
+ * {@code read-your-writes-ms} after they commit a write, so a post or like
+ * never disappears from the author's own next page while replicas catch
+ * up. The user comes from the request bound to the current thread by this
+ * filter; scheduled and background work is never pinned. Write times are
+ * kept per instance and also handed back in a short-lived
+ * {@code last-write} cookie, so a client is still pinned when its next
+ * request is served by another instance; token clients that drop cookies
+ * are only pinned on the instance that took the write.
+ */
+@Component
+@ConditionalOnProperty(name = "minitwitter.replicas.enabled", havingValue = "true")
+public class ReadYourWrites extends OncePerRequestFilter {
+
+    private static final String COOKIE = "last-write";
+
+    private static final ThreadLocal<HttpServletRequest> REQUEST = new ThreadLocal<>();
+    private static final ThreadLocal<HttpServletResponse> RESPONSE = new ThreadLocal<>();
+
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+
+    @Value("${minitwitter.replicas.read-your-writes-ms:1500}")
+    private long windowMillis;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        REQUEST.set(request);
+        RESPONSE.set(response);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            REQUEST.remove();
+            RESPONSE.remove();
+        }
+    }
+
+    /** Called when a read-write transaction takes its connection; it counts as a write once it commits. */
+    public void onReadWriteTransaction() {
+        Long userId = currentUserId();
+        HttpServletResponse response = RESPONSE.get();
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long now = System.currentTimeMillis();
+                lastWrites.put(userId, now);
+                if (response != null && !response.isCommitted()) {
+                    Cookie cookie = new Cookie(COOKIE, Long.toString(now));
+                    cookie.setPath("/");
+                    cookie.setHttpOnly(true);
+                    cookie.setMaxAge((int) ((windowMillis + 999) / 1000));
+                    response.addCookie(cookie);
+                }
+            }
+        });
+    }
+
+    public boolean isPinnedToPrimary() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        return isRecent(lastWrites.get(userId)) || isRecent(cookieWrite());
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void expire() {
+        long cutoff = System.currentTimeMillis() - windowMillis;
+        lastWrites.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+
+    private boolean isRecent(Long lastWrite) {
+        // Either side of now, for clock skew between instances
+        return lastWrite != null && Math.abs(System.currentTimeMillis() - lastWrite) < windowMillis;
+    }
+
+    private Long cookieWrite() {
+        HttpServletRequest request = REQUEST.get();
+        Cookie[] cookies = request != null ? request.getCookies() : null;
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Long currentUserId() {
+        HttpServletRequest request = REQUEST.get();
+        UserPrincipal principal = request != null ? CurrentUserArgumentResolver.resolve(request) : null;
+        return principal != null ? principal.getId() : null;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.minitwitter.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures how far each read replica is behind the primary. Every interval
+ * the primary stamps the current time into the one-row
+ * {@code replica_heartbeat} table the migrations create, and each replica's
+ * lag is the age of the stamp it returns; a replica that cannot be read
+ * counts as infinitely behind. Only replicas within
+ * {@code max-lag-ms} are handed out, round robin.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String BEAT_SQL = "MERGE INTO replica_heartbeat (id, beat_at) KEY (id) VALUES (1, ?)";
+
+    private static final String READ_SQL = "SELECT beat_at FROM replica_heartbeat WHERE id = 1";
+
+    private final HikariDataSource primary;
+    private final JdbcTemplate primaryJdbc;
+    private final Map<String, Replica> replicas = new LinkedHashMap<>();
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<String> caughtUp = List.of();
+
+    public ReplicaLagMonitor(HikariDataSource primary, Map<String, HikariDataSource> replicas, long maxLagMillis,
+                             MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.primaryJdbc = new JdbcTemplate(primary);
+        this.maxLagMillis = maxLagMillis;
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(dataSource);
+            this.replicas.put(name, replica);
+            Gauge.builder("minitwitter.replica.lag", replica,
+                            r -> r.lagMillis == Long.MAX_VALUE ? Double.NaN : r.lagMillis)
+                    .baseUnit("milliseconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public Map<String, HikariDataSource> getReplicas() {
+        Map<String, HikariDataSource> dataSources = new LinkedHashMap<>();
+        replicas.forEach((name, replica) -> dataSources.put(name, replica.dataSource));
+        return dataSources;
+    }
+
+    /** A replica within the lag budget, or {@code null} when none is. */
+    public String pick() {
+        List<String> candidates = caughtUp;
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${minitwitter.replicas.heartbeat-interval-ms:250}")
+    public synchronized void heartbeat() {
+        try {
+            primaryJdbc.update(BEAT_SQL, System.currentTimeMillis());
+        } catch (DataAccessException e) {
+            log.warn("Replica heartbeat could not be written: {}", e.getMostSpecificCause().getMessage());
+        }
+
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, Replica> entry : replicas.entrySet()) {
+            Replica replica = entry.getValue();
+            long lag;
+            try {
+                Long beatAt = replica.jdbc.queryForObject(READ_SQL, Long.class);
+                lag = beatAt != null ? Math.max(0, System.currentTimeMillis() - beatAt) : Long.MAX_VALUE;
+            } catch (DataAccessException e) {
+                lag = Long.MAX_VALUE;
+            }
+            replica.lagMillis = lag;
+            boolean withinBudget = lag <= maxLagMillis;
+            if (withinBudget) {
+                healthy.add(entry.getKey());
+            }
+            if (replica.withinBudget == null || replica.withinBudget != withinBudget) {
+                if (withinBudget) {
+                    log.info("Replica {} is serving reads ({} ms behind)", entry.getKey(), lag);
+                } else if (lag == Long.MAX_VALUE) {
+                    log.warn("Replica {} has no readable heartbeat; reads stay off it", entry.getKey());
+                } else {
+                    log.warn("Replica {} is {} ms behind; reads stay off it", entry.getKey(), lag);
+                }
+                replica.withinBudget = withinBudget;
+            }
+        }
+        caughtUp = healthy;
+    }
+
+    @PreDestroy
+    public void close() {
+        replicas.values().forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private final JdbcTemplate jdbc;
+        private volatile long lagMillis = Long.MAX_VALUE;
+        private Boolean withinBudget;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+            this.jdbc = new JdbcTemplate(dataSource);
+        }
+    }
+}
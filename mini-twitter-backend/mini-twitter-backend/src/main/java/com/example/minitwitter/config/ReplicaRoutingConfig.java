@@ -0,0 +1,71 @@
+package com.example.minitwitter.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the single Boot datasource with a primary pool plus one pool per
+ * {@code minitwitter.replicas.urls} entry, routed by
+ * {@link ReplicaRoutingDataSource}. Replicas use the primary's driver and
+ * credentials.
+ */
+@Configuration
+@ConditionalOnProperty(name = "minitwitter.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Value("${minitwitter.replicas.pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${minitwitter.replicas.max-lag-ms:1000}")
+    private long maxLagMillis;
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties properties, Environment environment,
+                                               MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        MetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setMetricsTrackerFactory(metrics);
+
+        List<String> urls = binder.bind("minitwitter.replicas.urls", Bindable.listOf(String.class)).orElse(List.of());
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(primary.getPoolName() + "-replica-" + i);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setJdbcUrl(urls.get(i));
+            replica.setUsername(properties.determineUsername());
+            replica.setPassword(properties.determinePassword());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(metrics);
+            replicas.put("replica-" + i, replica);
+        }
+        return new ReplicaLagMonitor(primary, replicas, maxLagMillis, meterRegistry);
+    }
+
+    @Bean
+    public DataSource dataSource(ReplicaLagMonitor replicaLagMonitor, ReadYourWrites readYourWrites,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(replicaLagMonitor, readYourWrites, meterRegistry));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.minitwitter.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a replica the {@link ReplicaLagMonitor}
+ * reports as caught up and everything else, including work outside a
+ * transaction or under {@link PrimaryReads}, to the primary. It has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * a transaction's read-only flag is only published after the transaction
+ * manager has asked for a connection, so the physical one must wait for
+ * the first statement.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final ReplicaLagMonitor monitor;
+    private final ReadYourWrites readYourWrites;
+    private final Map<Object, Counter> routed = new HashMap<>();
+
+    ReplicaRoutingDataSource(ReplicaLagMonitor monitor, ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+        this.monitor = monitor;
+        this.readYourWrites = readYourWrites;
+        Map<Object, Object> targets = new HashMap<>(monitor.getReplicas());
+        targets.put(PRIMARY, monitor.getPrimary());
+        for (Object target : targets.keySet()) {
+            routed.put(target, Counter.builder("minitwitter.datasource.routed")
+                    .tag("target", target.toString())
+                    .register(meterRegistry));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(monitor.getPrimary());
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Object target = route();
+        routed.get(target).increment();
+        return target;
+    }
+
+    private Object route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWrites.onReadWriteTransaction();
+            return PRIMARY;
+        }
+        if (PrimaryReads.isForced() || readYourWrites.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        String replica = monitor.pick();
+        return replica != null ? replica : PRIMARY;
+    }
+}
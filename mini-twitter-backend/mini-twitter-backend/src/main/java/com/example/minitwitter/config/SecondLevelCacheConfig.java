@@ -0,0 +1,67 @@
+package com.example.minitwitter.config;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+
+/**
+ * Ehcache regions behind Hibernate's JCache second-level cache: users and
+ * hashtags by id and by natural id, each bounded by entry count and
+ * expired after a fixed time to live. Hit and miss counts per region are
+ * published as {@code hibernate.second.level.cache.requests} and
+ * {@code hibernate.cache.natural.id.requests}.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Value("${minitwitter.second-level-cache.users.max-entries:10000}")
+    private long userEntries;
+
+    @Value("${minitwitter.second-level-cache.users.ttl-seconds:600}")
+    private long userTtlSeconds;
+
+    @Value("${minitwitter.second-level-cache.hashtags.max-entries:10000}")
+    private long hashtagEntries;
+
+    @Value("${minitwitter.second-level-cache.hashtags.ttl-seconds:3600}")
+    private long hashtagTtlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        region(cacheManager, "users", userEntries, userTtlSeconds);
+        region(cacheManager, "users-by-username", userEntries, userTtlSeconds);
+        region(cacheManager, "hashtags", hashtagEntries, hashtagTtlSeconds);
+        region(cacheManager, "hashtags-by-tag", hashtagEntries, hashtagTtlSeconds);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // A region missing above is a mapping mistake, not something to create unbounded
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static void region(CacheManager cacheManager, String name, long entries, long ttlSeconds) {
+        cacheManager.createCache(name, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                ResourcePoolsBuilder.heap(entries))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ttlSeconds)))));
+    }
+}
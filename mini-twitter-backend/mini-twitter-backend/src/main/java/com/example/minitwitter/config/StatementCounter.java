@@ -0,0 +1,27 @@
+package com.example.minitwitter.config;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements executed on the current thread, so
+ * {@link StatementMetricsFilter} can record statements per request. The
+ * counts come from {@link StatementCountingDataSource}, which sees
+ * Hibernate and {@code JdbcTemplate} statements alike.
+ */
+@Component
+public class StatementCounter {
+
+    private final ThreadLocal<int[]> count = ThreadLocal.withInitial(() -> new int[1]);
+
+    void increment() {
+        count.get()[0]++;
+    }
+
+    public void reset() {
+        count.get()[0] = 0;
+    }
+
+    public int get() {
+        return count.get()[0];
+    }
+}
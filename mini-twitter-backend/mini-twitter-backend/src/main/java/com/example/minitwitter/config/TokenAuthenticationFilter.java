@@ -0,0 +1,52 @@
+package com.example.minitwitter.config;
+
+import com.example.minitwitter.service.TokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Authenticates {@code Authorization: Bearer} access tokens and exposes the
+ * principal as the {@code currentUser} request attribute. A bad or expired
+ * token is rejected with 401 so the client knows to refresh; requests
+ * without a token pass through and are treated as anonymous.
+ */
+@Component
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER)) {
+            try {
+                request.setAttribute(CurrentUserArgumentResolver.ATTRIBUTE,
+                        tokenService.verifyAccessToken(header.substring(BEARER.length()).trim()));
+            } catch (RuntimeException e) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), Map.of("error", e.getMessage()));
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.minitwitter.controller;
 
+import com.example.minitwitter.config.CurrentUser;
 import com.example.minitwitter.dto.LoginRequest;
+import com.example.minitwitter.dto.RefreshRequest;
 import com.example.minitwitter.dto.RegisterRequest;
+import com.example.minitwitter.dto.UserPrincipal;
 import com.example.minitwitter.entity.User;
 import com.example.minitwitter.service.AuthService;
+import com.example.minitwitter.service.TooManyRequestsException;
+import com.example.minitwitter.service.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.Map;
@@ -18,39 +26,85 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private TokenService tokenService;
+
+    // "session" keeps the login in HttpSession; "token" issues signed bearer tokens instead
+    @Value("${minitwitter.auth.mode:session}")
+    private String authMode;
+
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpSession session) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         try {
-            User user = authService.login(request);
-            session.setAttribute("currentUser", user.getUsername());
+            User user = authService.login(request, httpRequest.getRemoteAddr());
+            UserPrincipal principal = new UserPrincipal(user);
+            if ("token".equals(authMode)) {
+                return ResponseEntity.ok(tokenPair("Login successful", principal));
+            }
+            httpRequest.getSession().setAttribute("currentUser", principal);
             return ResponseEntity.ok(Map.of("message", "Login successful", "user", user.getUsername()));
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest request) {
+        if (request.getRefreshToken() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Refresh token is required"));
+        }
+
+        try {
+            UserPrincipal principal = tokenService.verifyRefreshToken(request.getRefreshToken());
+            return ResponseEntity.ok(tokenPair("Token refreshed", principal));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(401).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
+    public ResponseEntity<?> register(@RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
         try {
-            User user = authService.register(request);
+            User user = authService.register(request, httpRequest.getRemoteAddr());
             return ResponseEntity.ok(Map.of("message", "Registration successful", "user", user.getUsername()));
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(HttpSession session) {
-        session.invalidate();
+    public ResponseEntity<?> logout(HttpServletRequest httpRequest) {
+        // Bearer tokens are simply discarded by the client and expire on their own
+        HttpSession session = httpRequest.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
         return ResponseEntity.ok(Map.of("message", "Logout successful"));
     }
 
     @GetMapping("/current")
-    public ResponseEntity<?> getCurrentUser(HttpSession session) {
-        String username = (String) session.getAttribute("currentUser");
-        if (username != null) {
-            return ResponseEntity.ok(Map.of("user", username));
+    public ResponseEntity<?> getCurrentUser(@CurrentUser UserPrincipal principal) {
+        if (principal != null) {
+            return ResponseEntity.ok(Map.of("user", principal.getUsername()));
         }
         return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
     }
+
+    private ResponseEntity<?> tooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(429)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    private Map<String, Object> tokenPair(String message, UserPrincipal principal) {
+        return Map.of("message", message,
+                "user", principal.getUsername(),
+                "accessToken", tokenService.issueAccessToken(principal),
+                "refreshToken", tokenService.issueRefreshToken(principal),
+                "expiresIn", tokenService.getAccessTtlSeconds());
+    }
 }
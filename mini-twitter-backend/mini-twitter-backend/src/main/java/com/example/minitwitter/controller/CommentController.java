@@ -1,10 +1,11 @@
 package com.example.minitwitter.controller;
 
+import com.example.minitwitter.config.CurrentUser;
+import com.example.minitwitter.dto.CommentPage;
 import com.example.minitwitter.dto.CommentRequest;
 import com.example.minitwitter.dto.CommentResponse;
-import com.example.minitwitter.entity.Comment;
+import com.example.minitwitter.dto.UserPrincipal;
 import com.example.minitwitter.service.CommentService;
-import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,20 +23,44 @@ public class CommentController {
     @PostMapping
     public ResponseEntity<?> createComment(@PathVariable Long postId,
                                            @RequestBody CommentRequest request,
-                                           HttpSession session) {
-        String username = (String) session.getAttribute("currentUser");
-        if (username == null) {
+                                           @CurrentUser UserPrincipal principal) {
+        if (principal == null) {
             return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
         }
 
         try {
-            Comment comment = commentService.createComment(postId, request, username);
+            CommentResponse comment = commentService.createComment(postId, request, principal.getId());
             return ResponseEntity.ok(comment);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<?> getCommentFeed(@PathVariable Long postId,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            CommentPage page = commentService.getCommentPage(postId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{commentId}/replies")
+    public ResponseEntity<?> getReplies(@PathVariable Long postId,
+                                        @PathVariable Long commentId,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "20") int limit) {
+        try {
+            CommentPage page = commentService.getReplyPage(postId, commentId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping
     public ResponseEntity<List<CommentResponse>> getComments(@PathVariable Long postId) {
         try {
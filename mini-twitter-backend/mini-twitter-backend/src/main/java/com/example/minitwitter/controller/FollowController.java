@@ -0,0 +1,47 @@
+package com.example.minitwitter.controller;
+
+import com.example.minitwitter.config.CurrentUser;
+import com.example.minitwitter.dto.UserPrincipal;
+import com.example.minitwitter.service.FollowService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/users/{username}/follow")
+@CrossOrigin(origins = "http://localhost:4200", allowCredentials = "true")
+public class FollowController {
+
+    @Autowired
+    private FollowService followService;
+
+    @PostMapping
+    public ResponseEntity<?> follow(@PathVariable String username, @CurrentUser UserPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
+        }
+
+        try {
+            boolean following = followService.follow(principal.getId(), username);
+            return ResponseEntity.ok(Map.of("following", following));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> unfollow(@PathVariable String username, @CurrentUser UserPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
+        }
+
+        try {
+            boolean following = followService.unfollow(principal.getId(), username);
+            return ResponseEntity.ok(Map.of("following", following));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package com.example.minitwitter.controller;
 
+import com.example.minitwitter.config.CurrentUser;
+import com.example.minitwitter.dto.CompactFeedPage;
+import com.example.minitwitter.dto.FeedPage;
 import com.example.minitwitter.dto.PostResponse;
+import com.example.minitwitter.dto.TrendingHashtag;
+import com.example.minitwitter.dto.UserPrincipal;
+import com.example.minitwitter.service.FeedVersions;
 import com.example.minitwitter.service.PostService;
-import jakarta.servlet.http.HttpSession;
+import com.example.minitwitter.service.TrendingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/hashtags")
@@ -17,16 +26,61 @@ public class HashtagController {
     @Autowired
     private PostService postService;
 
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private FeedVersions feedVersions;
+
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrending(@RequestParam(defaultValue = "1h") String window,
+                                         @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<TrendingHashtag> trending = trendingService.getTrending(window, limit);
+            return ResponseEntity.ok(trending);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Deprecated: kept for existing clients but capped at the newest page; use /{tag}/feed to page further
+    @Deprecated
     @GetMapping("/{tag}/posts")
     public ResponseEntity<List<PostResponse>> getPostsByHashtag(
             @PathVariable String tag,
-            HttpSession session) {
-        String username = (String) session.getAttribute("currentUser");
+            @CurrentUser UserPrincipal principal,
+            WebRequest webRequest) {
+        Long userId = principal != null ? principal.getId() : null;
+        if (webRequest.checkNotModified(feedVersions.tagETag(tag.toLowerCase(), userId))) {
+            return null;
+        }
+
         try {
-            List<PostResponse> posts = postService.getPostsByHashtag(tag, username);
-            return ResponseEntity.ok(posts);
+            List<PostResponse> posts = postService.getPostsByHashtag(tag, userId);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).varyBy("Accept").body(posts);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{tag}/feed")
+    public ResponseEntity<?> getHashtagFeed(@PathVariable String tag,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "20") int limit,
+                                            @RequestParam(required = false) String view,
+                                            @CurrentUser UserPrincipal principal,
+                                            WebRequest webRequest) {
+        Long userId = principal != null ? principal.getId() : null;
+        if (webRequest.checkNotModified(feedVersions.tagETag(tag.toLowerCase(), userId))) {
+            return null;
+        }
+
+        try {
+            FeedPage page = postService.getHashtagPage(tag, cursor, limit, userId);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).varyBy("Accept")
+                    .body("compact".equals(view) ? CompactFeedPage.of(page) : page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.minitwitter.controller;
+
+import com.example.minitwitter.config.CurrentUser;
+import com.example.minitwitter.dto.UserPrincipal;
+import com.example.minitwitter.service.BulkIngestService;
+import com.example.minitwitter.service.TooManyRequestsException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import of NDJSON posts, likes and comments, one record per line. The
+ * records name their authors, so the endpoint is off unless
+ * {@code minitwitter.ingest.enabled} is set, and only the usernames listed
+ * in {@code minitwitter.ingest.operators} may call it.
+ */
+@RestController
+@RequestMapping("/api/ingest")
+@CrossOrigin(origins = "http://localhost:4200", allowCredentials = "true")
+public class IngestController {
+
+    @Autowired
+    private BulkIngestService bulkIngestService;
+
+    @Value("${minitwitter.ingest.enabled:false}")
+    private boolean enabled;
+
+    @Value("${minitwitter.ingest.operators:}")
+    private Set<String> operators;
+
+    // The body is read as a stream rather than bound, so it is never held in memory whole
+    @PostMapping
+    public ResponseEntity<?> ingest(HttpServletRequest request, @CurrentUser UserPrincipal principal) {
+        if (!enabled) {
+            return ResponseEntity.status(403).body(Map.of("error", "Bulk ingest is disabled"));
+        }
+        if (principal == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
+        }
+        if (!operators.contains(principal.getUsername())) {
+            return ResponseEntity.status(403).body(Map.of("error", "Bulk ingest is limited to operators"));
+        }
+
+        try {
+            return ResponseEntity.ok(bulkIngestService.ingest(request.getInputStream()));
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(429)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Could not read request body"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
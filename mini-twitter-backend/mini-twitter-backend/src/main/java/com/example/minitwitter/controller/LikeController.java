@@ -1,7 +1,8 @@
 package com.example.minitwitter.controller;
 
+import com.example.minitwitter.config.CurrentUser;
+import com.example.minitwitter.dto.UserPrincipal;
 import com.example.minitwitter.service.LikeService;
-import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,15 +17,41 @@ public class LikeController {
     @Autowired
     private LikeService likeService;
 
+    @PutMapping
+    public ResponseEntity<?> like(@PathVariable Long postId, @CurrentUser UserPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
+        }
+
+        try {
+            return ResponseEntity.ok(Map.of("liked", likeService.like(postId, principal.getId())));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> unlike(@PathVariable Long postId, @CurrentUser UserPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
+        }
+
+        try {
+            return ResponseEntity.ok(Map.of("liked", likeService.unlike(postId, principal.getId())));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Kept for clients that predate PUT/DELETE; not safe to retry
     @PostMapping
-    public ResponseEntity<?> toggleLike(@PathVariable Long postId, HttpSession session) {
-        String username = (String) session.getAttribute("currentUser");
-        if (username == null) {
+    public ResponseEntity<?> toggleLike(@PathVariable Long postId, @CurrentUser UserPrincipal principal) {
+        if (principal == null) {
             return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
         }
 
         try {
-            boolean liked = likeService.toggleLike(postId, username);
+            boolean liked = likeService.toggleLike(postId, principal.getId());
             return ResponseEntity.ok(Map.of("liked", liked));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -1,13 +1,19 @@
 package com.example.minitwitter.controller;
 
+import com.example.minitwitter.config.CurrentUser;
+import com.example.minitwitter.dto.CompactFeedPage;
+import com.example.minitwitter.dto.FeedPage;
 import com.example.minitwitter.dto.PostRequest;
 import com.example.minitwitter.dto.PostResponse;
-import com.example.minitwitter.entity.Post;
+import com.example.minitwitter.dto.UserPrincipal;
+import com.example.minitwitter.service.FeedVersions;
 import com.example.minitwitter.service.PostService;
-import jakarta.servlet.http.HttpSession;
+import com.example.minitwitter.service.TimelineService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -20,25 +26,74 @@ public class PostController {
     @Autowired
     private PostService postService;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private FeedVersions feedVersions;
+
     @PostMapping
-    public ResponseEntity<?> createPost(@RequestBody PostRequest request, HttpSession session) {
-        String username = (String) session.getAttribute("currentUser");
-        if (username == null) {
+    public ResponseEntity<?> createPost(@RequestBody PostRequest request, @CurrentUser UserPrincipal principal) {
+        if (principal == null) {
             return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
         }
 
         try {
-            Post post = postService.createPost(request, username);
+            PostResponse post = postService.createPost(request, principal.getId());
             return ResponseEntity.ok(post);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    // Deprecated: kept for existing clients but capped at the newest page; use /feed to page further
+    @Deprecated
     @GetMapping
-    public ResponseEntity<List<PostResponse>> getAllPosts(HttpSession session) {
-        String username = (String) session.getAttribute("currentUser");
-        List<PostResponse> posts = postService.getAllPosts(username);
-        return ResponseEntity.ok(posts);
+    public ResponseEntity<List<PostResponse>> getAllPosts(@CurrentUser UserPrincipal principal, WebRequest webRequest) {
+        Long userId = principal != null ? principal.getId() : null;
+        // Stamp before reading, so a write racing the read can only make the ETag stale, never the body
+        if (webRequest.checkNotModified(feedVersions.feedETag(userId))) {
+            return null;
+        }
+
+        List<PostResponse> posts = postService.getAllPosts(userId);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).varyBy("Accept").body(posts);
+    }
+
+    @GetMapping("/feed")
+    public ResponseEntity<?> getFeed(@RequestParam(required = false) String cursor,
+                                     @RequestParam(defaultValue = "20") int limit,
+                                     @RequestParam(required = false) String view,
+                                     @CurrentUser UserPrincipal principal,
+                                     WebRequest webRequest) {
+        Long userId = principal != null ? principal.getId() : null;
+        if (webRequest.checkNotModified(feedVersions.feedETag(userId))) {
+            return null;
+        }
+
+        try {
+            FeedPage page = postService.getFeedPage(cursor, limit, userId);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).varyBy("Accept")
+                    .body("compact".equals(view) ? CompactFeedPage.of(page) : page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/home")
+    public ResponseEntity<?> getHomeTimeline(@RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "20") int limit,
+                                             @RequestParam(required = false) String view,
+                                             @CurrentUser UserPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
+        }
+
+        try {
+            FeedPage page = timelineService.getHomeTimeline(principal.getId(), cursor, limit);
+            return ResponseEntity.ok("compact".equals(view) ? CompactFeedPage.of(page) : page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 }
@@ -0,0 +1,35 @@
+package com.example.minitwitter.controller;
+
+import com.example.minitwitter.config.CurrentUser;
+import com.example.minitwitter.dto.CompactFeedPage;
+import com.example.minitwitter.dto.FeedPage;
+import com.example.minitwitter.dto.UserPrincipal;
+import com.example.minitwitter.service.PostService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "http://localhost:4200", allowCredentials = "true")
+public class SearchController {
+
+    @Autowired
+    private PostService postService;
+
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam("q") String query,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(defaultValue = "20") int limit,
+                                    @RequestParam(required = false) String view,
+                                    @CurrentUser UserPrincipal principal) {
+        try {
+            FeedPage page = postService.searchPosts(query, cursor, limit, principal != null ? principal.getId() : null);
+            return ResponseEntity.ok("compact".equals(view) ? CompactFeedPage.of(page) : page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.minitwitter.controller;
+
+import com.example.minitwitter.config.CurrentUser;
+import com.example.minitwitter.dto.ProfileUpdateRequest;
+import com.example.minitwitter.dto.UserPrincipal;
+import com.example.minitwitter.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = "http://localhost:4200", allowCredentials = "true")
+public class UserController {
+
+    @Autowired
+    private UserService userService;
+
+    @PutMapping("/me")
+    public ResponseEntity<?> updateProfile(@RequestBody ProfileUpdateRequest request,
+                                           @CurrentUser UserPrincipal principal,
+                                           HttpServletRequest httpRequest) {
+        if (principal == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
+        }
+
+        try {
+            UserPrincipal updated = userService.updateProfile(principal.getId(), request);
+            // Tokens carry no display name, so only a login session needs refreshing
+            HttpSession session = httpRequest.getSession(false);
+            if (session != null && session.getAttribute("currentUser") != null) {
+                session.setAttribute("currentUser", updated);
+            }
+            return ResponseEntity.ok(Map.of("user", updated.getUsername(), "fullName", updated.getFullName()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.minitwitter.dto;
+
+import java.util.List;
+
+public class CommentPage {
+    private List<CommentResponse> comments;
+    private String nextCursor;
+
+    public CommentPage(List<CommentResponse> comments, String nextCursor) {
+        this.comments = comments;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<CommentResponse> getComments() { return comments; }
+    public void setComments(List<CommentResponse> comments) { this.comments = comments; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -2,7 +2,11 @@ package com.example.minitwitter.dto;
 
 public class CommentRequest {
     private String content;
+    private Long parentId;
 
     public String getContent() { return content; }
     public void setContent(String content) { this.content = content; }
+
+    public Long getParentId() { return parentId; }
+    public void setParentId(Long parentId) { this.parentId = parentId; }
 }
\ No newline at end of file
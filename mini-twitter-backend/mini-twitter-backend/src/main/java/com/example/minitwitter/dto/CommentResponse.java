@@ -10,13 +10,26 @@ public class CommentResponse {
     private String username;
     private String fullName;
     private LocalDateTime createdAt;
+    private Long parentId;
+    private int replyCount;
 
     public CommentResponse(Comment comment) {
+        this(comment, comment.getUser().getUsername(), comment.getUser().getFullName());
+    }
+
+    public CommentResponse(Comment comment, UserPrincipal author) {
+        this(comment, author.getUsername(), author.getFullName());
+    }
+
+    private CommentResponse(Comment comment, String username, String fullName) {
         this.id = comment.getId();
         this.content = comment.getContent();
-        this.username = comment.getUser().getUsername();
-        this.fullName = comment.getUser().getFullName();
+        this.username = username;
+        this.fullName = fullName;
         this.createdAt = comment.getCreatedAt();
+        // Reading the id of a lazy parent does not load it
+        this.parentId = comment.getParent() != null ? comment.getParent().getId() : null;
+        this.replyCount = comment.getReplyCount();
     }
 
     public Long getId() { return id; }
@@ -33,4 +46,10 @@ public class CommentResponse {
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public Long getParentId() { return parentId; }
+    public void setParentId(Long parentId) { this.parentId = parentId; }
+
+    public int getReplyCount() { return replyCount; }
+    public void setReplyCount(int replyCount) { this.replyCount = replyCount; }
 }
@@ -0,0 +1,96 @@
+package com.example.minitwitter.dto;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feed page with authors and hashtags listed once and referenced by index,
+ * returned for {@code view=compact}. {@code createdAt} is epoch
+ * milliseconds; post timestamps are stored in the server's local time.
+ */
+public class CompactFeedPage {
+    private List<Author> authors = new ArrayList<>();
+    private List<String> hashtags = new ArrayList<>();
+    private List<Post> posts;
+    private String nextCursor;
+
+    public static CompactFeedPage of(FeedPage page) {
+        return of(page.getPosts(), page.getNextCursor());
+    }
+
+    public static CompactFeedPage of(List<PostResponse> responses, String nextCursor) {
+        CompactFeedPage page = new CompactFeedPage();
+        page.posts = new ArrayList<>(responses.size());
+        page.nextCursor = nextCursor;
+
+        Map<String, Integer> authorIndex = new HashMap<>();
+        Map<String, Integer> tagIndex = new HashMap<>();
+        for (PostResponse response : responses) {
+            int author = authorIndex.computeIfAbsent(response.getUsername(), username -> {
+                page.authors.add(new Author(username, response.getFullName()));
+                return page.authors.size() - 1;
+            });
+            int[] tags = new int[response.getHashtags().size()];
+            for (int i = 0; i < tags.length; i++) {
+                tags[i] = tagIndex.computeIfAbsent(response.getHashtags().get(i), tag -> {
+                    page.hashtags.add(tag);
+                    return page.hashtags.size() - 1;
+                });
+            }
+            page.posts.add(new Post(response, author, tags));
+        }
+        return page;
+    }
+
+    public List<Author> getAuthors() { return authors; }
+    public List<String> getHashtags() { return hashtags; }
+    public List<Post> getPosts() { return posts; }
+    public String getNextCursor() { return nextCursor; }
+
+    public static class Author {
+        private final String username;
+        private final String fullName;
+
+        public Author(String username, String fullName) {
+            this.username = username;
+            this.fullName = fullName;
+        }
+
+        public String getUsername() { return username; }
+        public String getFullName() { return fullName; }
+    }
+
+    public static class Post {
+        private final Long id;
+        private final String content;
+        private final int author;
+        private final long createdAt;
+        private final int likeCount;
+        private final int commentCount;
+        private final boolean liked;
+        private final int[] hashtags;
+
+        public Post(PostResponse response, int author, int[] hashtags) {
+            this.id = response.getId();
+            this.content = response.getContent();
+            this.author = author;
+            this.createdAt = response.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            this.likeCount = response.getLikeCount();
+            this.commentCount = response.getCommentCount();
+            this.liked = response.isLikedByCurrentUser();
+            this.hashtags = hashtags;
+        }
+
+        public Long getId() { return id; }
+        public String getContent() { return content; }
+        public int getAuthor() { return author; }
+        public long getCreatedAt() { return createdAt; }
+        public int getLikeCount() { return likeCount; }
+        public int getCommentCount() { return commentCount; }
+        public boolean isLiked() { return liked; }
+        public int[] getHashtags() { return hashtags; }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.minitwitter.dto;
+
+import java.util.List;
+
+public class FeedPage {
+    private List<PostResponse> posts;
+    private String nextCursor;
+
+    public FeedPage(List<PostResponse> posts, String nextCursor) {
+        this.posts = posts;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PostResponse> getPosts() { return posts; }
+    public void setPosts(List<PostResponse> posts) { this.posts = posts; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,46 @@
+package com.example.minitwitter.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One NDJSON line of a bulk ingest. {@code type} is {@code post},
+ * {@code like} or {@code comment}. A post may carry a {@code ref} that
+ * later likes and comments in the same stream use as {@code postRef}
+ * instead of a {@code postId}.
+ */
+public class IngestRecord {
+    private String type;
+    private String username;
+    private String content;
+    private List<String> hashtags = new ArrayList<>();
+    private LocalDateTime createdAt;
+    private String ref;
+    private Long postId;
+    private String postRef;
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public List<String> getHashtags() { return hashtags; }
+    public void setHashtags(List<String> hashtags) { this.hashtags = hashtags; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public String getRef() { return ref; }
+    public void setRef(String ref) { this.ref = ref; }
+
+    public Long getPostId() { return postId; }
+    public void setPostId(Long postId) { this.postId = postId; }
+
+    public String getPostRef() { return postRef; }
+    public void setPostRef(String postRef) { this.postRef = postRef; }
+}
@@ -0,0 +1,32 @@
+package com.example.minitwitter.dto;
+
+import java.util.List;
+
+public class IngestResult {
+    private long posts;
+    private long likes;
+    private long comments;
+    private long duplicateLikes;
+    private long rejected;
+    private List<String> errors;
+    private long elapsedMs;
+
+    public IngestResult(long posts, long likes, long comments, long duplicateLikes, long rejected,
+                        List<String> errors, long elapsedMs) {
+        this.posts = posts;
+        this.likes = likes;
+        this.comments = comments;
+        this.duplicateLikes = duplicateLikes;
+        this.rejected = rejected;
+        this.errors = errors;
+        this.elapsedMs = elapsedMs;
+    }
+
+    public long getPosts() { return posts; }
+    public long getLikes() { return likes; }
+    public long getComments() { return comments; }
+    public long getDuplicateLikes() { return duplicateLikes; }
+    public long getRejected() { return rejected; }
+    public List<String> getErrors() { return errors; }
+    public long getElapsedMs() { return elapsedMs; }
+}
@@ -2,7 +2,6 @@ package com.example.minitwitter.dto;
 
 import com.example.minitwitter.entity.Post;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,20 +16,29 @@ public class PostResponse {
     private boolean likedByCurrentUser;
     private List<String> hashtags;
 
-    public PostResponse(Post post, boolean likedByCurrentUser) {
+    // For a feed row read without loading the entity; the liked flag is set afterwards
+    public PostResponse(Long id, String content, String username, String fullName, LocalDateTime createdAt,
+                        int likeCount, int commentCount, List<String> hashtags) {
+        this.id = id;
+        this.content = content;
+        this.username = username;
+        this.fullName = fullName;
+        this.createdAt = createdAt;
+        this.likeCount = likeCount;
+        this.commentCount = commentCount;
+        this.hashtags = hashtags;
+    }
+
+    // For a post just created by the given author, who need not be loaded
+    public PostResponse(Post post, UserPrincipal author) {
         this.id = post.getId();
         this.content = post.getContent();
-        this.username = post.getUser().getUsername();
-        this.fullName = post.getUser().getFullName();
+        this.username = author.getUsername();
+        this.fullName = author.getFullName();
         this.createdAt = post.getCreatedAt();
-        this.likeCount = post.getLikeCount();
-        this.commentCount = post.getCommentCount();
-        this.likedByCurrentUser = likedByCurrentUser;
-        this.hashtags = post.getHashtags() != null ?
-                post.getHashtags().stream()
-                        .map(h -> h.getTag())
-                        .collect(Collectors.toList()) :
-                new ArrayList<>();
+        this.hashtags = post.getHashtags().stream()
+                .map(h -> h.getTag())
+                .collect(Collectors.toList());
     }
 
     // Getters and Setters
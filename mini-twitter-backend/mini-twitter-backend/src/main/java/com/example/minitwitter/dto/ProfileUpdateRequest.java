@@ -0,0 +1,8 @@
+package com.example.minitwitter.dto;
+
+public class ProfileUpdateRequest {
+    private String fullName;
+
+    public String getFullName() { return fullName; }
+    public void setFullName(String fullName) { this.fullName = fullName; }
+}
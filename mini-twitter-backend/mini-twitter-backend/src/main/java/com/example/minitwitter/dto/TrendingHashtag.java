@@ -0,0 +1,17 @@
+package com.example.minitwitter.dto;
+
+public class TrendingHashtag {
+    private String tag;
+    private long count;
+
+    public TrendingHashtag(String tag, long count) {
+        this.tag = tag;
+        this.count = count;
+    }
+
+    public String getTag() { return tag; }
+    public void setTag(String tag) { this.tag = tag; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
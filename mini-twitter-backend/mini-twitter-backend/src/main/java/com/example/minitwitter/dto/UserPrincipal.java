@@ -0,0 +1,31 @@
+package com.example.minitwitter.dto;
+
+import com.example.minitwitter.entity.User;
+
+import java.io.Serializable;
+
+/**
+ * The authenticated user as kept in the session, so request handling can
+ * work with the user id without looking the username up again.
+ */
+public class UserPrincipal implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String username;
+    private final String fullName;
+
+    public UserPrincipal(Long id, String username, String fullName) {
+        this.id = id;
+        this.username = username;
+        this.fullName = fullName;
+    }
+
+    public UserPrincipal(User user) {
+        this(user.getId(), user.getUsername(), user.getFullName());
+    }
+
+    public Long getId() { return id; }
+    public String getUsername() { return username; }
+    public String getFullName() { return fullName; }
+}
@@ -6,10 +6,14 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_post_parent_created", columnList = "post_id, parent_id, createdAt DESC, id DESC"),
+        @Index(name = "idx_comments_parent_created", columnList = "parent_id, createdAt, id")
+})
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 280, nullable = false)
@@ -23,6 +27,14 @@ public class Comment {
     @JoinColumn(name = "post_id", nullable = false)
     private Post post;
 
+    // Replies are one level deep: a reply's parent is always a top-level comment
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    private Comment parent;
+
+    @Column(nullable = false)
+    private int replyCount;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -34,6 +46,11 @@ public class Comment {
         this.post = post;
     }
 
+    public Comment(String content, User user, Post post, Comment parent) {
+        this(content, user, post);
+        this.parent = parent;
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
@@ -46,6 +63,12 @@ public class Comment {
     public Post getPost() { return post; }
     public void setPost(Post post) { this.post = post; }
 
+    public Comment getParent() { return parent; }
+    public void setParent(Comment parent) { this.parent = parent; }
+
+    public int getReplyCount() { return replyCount; }
+    public void setReplyCount(int replyCount) { this.replyCount = replyCount; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
@@ -1,18 +1,32 @@
 package com.example.minitwitter.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 @Entity
 @Table(name = "hashtags")
+// Rows are only ever inserted, mostly over plain JDBC, and never updated
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "hashtags")
+@NaturalIdCache(region = "hashtags-by-tag")
 public class Hashtag {
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String tag;
 
@@ -25,7 +39,11 @@ public class Hashtag {
     public Hashtag() {}
 
     public Hashtag(String tag) {
-        this.tag = tag.toLowerCase().replaceAll("[^a-z0-9]", "");
+        this.tag = normalize(tag);
+    }
+
+    public static String normalize(String tag) {
+        return NON_ALPHANUMERIC.matcher(tag.toLowerCase(Locale.ROOT)).replaceAll("");
     }
 
     // Getters and Setters
@@ -7,10 +7,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        // Descending to match the newest-first feed reads; H2 does not scan indexes backwards
+        @Index(name = "idx_posts_created_at_id", columnList = "createdAt DESC, id DESC"),
+        @Index(name = "idx_posts_user_created_at", columnList = "user_id, createdAt DESC, id DESC")
+})
 public class Post {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled so inserts batch; plain JDBC writers take ids from the same sequence via IdAllocator
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", sequenceName = "posts_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 280, nullable = false)
@@ -23,17 +29,24 @@ public class Post {
     @CreationTimestamp
     private LocalDateTime createdAt;
 
+    @Column(nullable = false)
+    private int likeCount;
+
+    @Column(nullable = false)
+    private int commentCount;
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Like> likes = new ArrayList<>();
 
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Comment> comments = new ArrayList<>();
 
-    @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.EAGER)
+    @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.LAZY)
     @JoinTable(
             name = "post_hashtags",
             joinColumns = @JoinColumn(name = "post_id"),
-            inverseJoinColumns = @JoinColumn(name = "hashtag_id")
+            inverseJoinColumns = @JoinColumn(name = "hashtag_id"),
+            indexes = @Index(name = "idx_post_hashtags_hashtag_post", columnList = "hashtag_id, post_id")
     )
     private List<Hashtag> hashtags = new ArrayList<>();
 
@@ -71,13 +84,11 @@ public class Post {
     }
     public void setHashtags(List<Hashtag> hashtags) { this.hashtags = hashtags; }
 
-    public int getLikeCount() {
-        return likes != null ? likes.size() : 0;
-    }
+    public int getLikeCount() { return likeCount; }
+    public void setLikeCount(int likeCount) { this.likeCount = likeCount; }
 
-    public int getCommentCount() {
-        return comments != null ? comments.size() : 0;
-    }
+    public int getCommentCount() { return commentCount; }
+    public void setCommentCount(int commentCount) { this.commentCount = commentCount; }
 
     public void addHashtag(Hashtag hashtag) {
         if (hashtags == null) {
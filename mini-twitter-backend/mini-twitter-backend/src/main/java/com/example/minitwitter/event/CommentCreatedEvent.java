@@ -0,0 +1,20 @@
+package com.example.minitwitter.event;
+
+public class CommentCreatedEvent {
+    private final Long postId;
+    private final Long commentId;
+    private final Long userId;
+    private final Long parentId;
+
+    public CommentCreatedEvent(Long postId, Long commentId, Long userId, Long parentId) {
+        this.postId = postId;
+        this.commentId = commentId;
+        this.userId = userId;
+        this.parentId = parentId;
+    }
+
+    public Long getPostId() { return postId; }
+    public Long getCommentId() { return commentId; }
+    public Long getUserId() { return userId; }
+    public Long getParentId() { return parentId; }
+}
@@ -0,0 +1,17 @@
+package com.example.minitwitter.event;
+
+public class FollowChangedEvent {
+    private final Long followerId;
+    private final Long followeeId;
+    private final boolean following;
+
+    public FollowChangedEvent(Long followerId, Long followeeId, boolean following) {
+        this.followerId = followerId;
+        this.followeeId = followeeId;
+        this.following = following;
+    }
+
+    public Long getFollowerId() { return followerId; }
+    public Long getFolloweeId() { return followeeId; }
+    public boolean isFollowing() { return following; }
+}
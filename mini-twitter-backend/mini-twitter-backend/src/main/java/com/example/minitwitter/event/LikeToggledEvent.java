@@ -0,0 +1,17 @@
+package com.example.minitwitter.event;
+
+public class LikeToggledEvent {
+    private final Long postId;
+    private final Long userId;
+    private final boolean liked;
+
+    public LikeToggledEvent(Long postId, Long userId, boolean liked) {
+        this.postId = postId;
+        this.userId = userId;
+        this.liked = liked;
+    }
+
+    public Long getPostId() { return postId; }
+    public Long getUserId() { return userId; }
+    public boolean isLiked() { return liked; }
+}
@@ -0,0 +1,27 @@
+package com.example.minitwitter.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class PostCreatedEvent {
+    private final Long postId;
+    private final Long authorId;
+    private final String content;
+    private final LocalDateTime createdAt;
+    private final List<String> hashtags;
+
+    public PostCreatedEvent(Long postId, Long authorId, String content, LocalDateTime createdAt,
+                            List<String> hashtags) {
+        this.postId = postId;
+        this.authorId = authorId;
+        this.content = content;
+        this.createdAt = createdAt;
+        this.hashtags = hashtags;
+    }
+
+    public Long getPostId() { return postId; }
+    public Long getAuthorId() { return authorId; }
+    public String getContent() { return content; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public List<String> getHashtags() { return hashtags; }
+}
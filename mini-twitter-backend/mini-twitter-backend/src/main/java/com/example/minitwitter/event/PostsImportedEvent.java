@@ -0,0 +1,27 @@
+package com.example.minitwitter.event;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One committed bulk-ingest chunk, published in place of a post, like or
+ * comment event per row. Imports are backfill: listeners index the posts,
+ * apply the new counts and drop resident home timelines, but nothing is
+ * pushed to followers, trending or live streams.
+ */
+public class PostsImportedEvent {
+    private final List<PostCreatedEvent> posts;
+    private final Map<Long, Integer> likesAdded;
+    private final Map<Long, Integer> commentsAdded;
+
+    public PostsImportedEvent(List<PostCreatedEvent> posts, Map<Long, Integer> likesAdded,
+                              Map<Long, Integer> commentsAdded) {
+        this.posts = posts;
+        this.likesAdded = likesAdded;
+        this.commentsAdded = commentsAdded;
+    }
+
+    public List<PostCreatedEvent> getPosts() { return posts; }
+    public Map<Long, Integer> getLikesAdded() { return likesAdded; }
+    public Map<Long, Integer> getCommentsAdded() { return commentsAdded; }
+}
@@ -0,0 +1,14 @@
+package com.example.minitwitter.event;
+
+public class UserProfileChangedEvent {
+    private final Long userId;
+    private final String username;
+
+    public UserProfileChangedEvent(Long userId, String username) {
+        this.userId = userId;
+        this.username = username;
+    }
+
+    public Long getUserId() { return userId; }
+    public String getUsername() { return username; }
+}
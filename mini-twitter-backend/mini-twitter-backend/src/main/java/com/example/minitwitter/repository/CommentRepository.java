@@ -2,12 +2,45 @@ package com.example.minitwitter.repository;
 
 import com.example.minitwitter.entity.Comment;
 import com.example.minitwitter.entity.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByPostOrderByCreatedAtDesc(Post post);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.post.id = :postId " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findWithAuthorByPostId(@Param("postId") Long postId);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.post.id = :postId AND c.parent IS NULL " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findTopLevelFirstPage(@Param("postId") Long postId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.post.id = :postId AND c.parent IS NULL " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findTopLevelPageBefore(@Param("postId") Long postId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    // Replies read oldest first so a thread follows the conversation
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.parent.id = :parentId " +
+            "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findRepliesFirstPage(@Param("parentId") Long parentId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.parent.id = :parentId " +
+            "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+            "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findRepliesPageAfter(@Param("parentId") Long parentId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
 }
\ No newline at end of file
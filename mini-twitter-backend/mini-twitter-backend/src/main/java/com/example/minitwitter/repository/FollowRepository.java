@@ -0,0 +1,23 @@
+package com.example.minitwitter.repository;
+
+import com.example.minitwitter.entity.Follow;
+import com.example.minitwitter.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FollowRepository extends JpaRepository<Follow, Long> {
+    Optional<Follow> findByFollowerAndFollowee(User follower, User followee);
+
+    @Query("SELECT f.follower.id FROM Follow f WHERE f.followee.id = :userId")
+    List<Long> findFollowerIds(@Param("userId") Long userId);
+
+    @Query("SELECT f.followee.id FROM Follow f " +
+            "WHERE f.follower.id = :userId AND f.followee.followerCount >= :threshold")
+    List<Long> findFollowedCelebrityIds(@Param("userId") Long userId, @Param("threshold") int threshold);
+}
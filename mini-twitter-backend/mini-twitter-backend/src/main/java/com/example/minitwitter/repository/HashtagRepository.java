@@ -3,10 +3,7 @@ package com.example.minitwitter.repository;
 import com.example.minitwitter.entity.Hashtag;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
-import java.util.Optional;
-import java.util.List;
 
 @Repository
-public interface HashtagRepository extends JpaRepository<Hashtag, Long> {
-    Optional<Hashtag> findByTag(String tag);
+public interface HashtagRepository extends JpaRepository<Hashtag, Long>, HashtagRepositoryCustom {
 }
\ No newline at end of file
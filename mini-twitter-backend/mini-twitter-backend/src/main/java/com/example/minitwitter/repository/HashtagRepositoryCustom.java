@@ -0,0 +1,15 @@
+package com.example.minitwitter.repository;
+
+import com.example.minitwitter.entity.Hashtag;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface HashtagRepositoryCustom {
+    /** Resolved through the natural-id cache instead of a query on every call. */
+    Optional<Hashtag> findByTag(String tag);
+
+    /** The tags that exist, in no particular order; cached tags cost no query and the rest share one. */
+    List<Hashtag> findByTagIn(Collection<String> tags);
+}
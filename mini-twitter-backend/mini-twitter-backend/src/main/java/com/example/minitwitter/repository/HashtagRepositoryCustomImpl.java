@@ -0,0 +1,55 @@
+package com.example.minitwitter.repository;
+
+import com.example.minitwitter.entity.Hashtag;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.NaturalIdResolutions;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.metamodel.mapping.EntityMappingType;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Not read-only: tag upserts re-read rows they may have just inserted, so this stays on the primary
+@Transactional
+public class HashtagRepositoryCustomImpl implements HashtagRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Hashtag> findByTag(String tag) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Hashtag.class).loadOptional(tag);
+    }
+
+    // Multi-loads by natural id skip the second-level cache, so cached tags are resolved
+    // one by one without a query and only the misses go to the database, together
+    @Override
+    public List<Hashtag> findByTagIn(Collection<String> tags) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityMappingType hashtags = session.getFactory().getMappingMetamodel().getEntityDescriptor(Hashtag.class);
+        NaturalIdResolutions resolutions = session.getPersistenceContextInternal().getNaturalIdResolutions();
+
+        List<Hashtag> found = new ArrayList<>(tags.size());
+        List<String> misses = new ArrayList<>();
+        for (String tag : tags) {
+            Object id = resolutions.findCachedIdByNaturalId(tag, hashtags);
+            Hashtag hashtag = id instanceof Long ? session.get(Hashtag.class, id) : null;
+            if (hashtag != null) {
+                found.add(hashtag);
+            } else {
+                misses.add(tag);
+            }
+        }
+        if (!misses.isEmpty()) {
+            found.addAll(entityManager.createQuery("SELECT h FROM Hashtag h WHERE h.tag IN :tags", Hashtag.class)
+                    .setParameter("tags", misses)
+                    .getResultList());
+        }
+        return found;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.minitwitter.repository;
+
+import java.time.LocalDateTime;
+
+/** Feed ordering key of a post, selected without loading the entity. */
+public interface PostKey {
+    Long getId();
+    LocalDateTime getCreatedAt();
+}
@@ -2,13 +2,68 @@ package com.example.minitwitter.repository;
 
 import com.example.minitwitter.entity.Post;
 import com.example.minitwitter.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
     List<Post> findByOrderByCreatedAtDesc();
     List<Post> findByUserOrderByCreatedAtDesc(User user);
+
+    @Query("SELECT p.id FROM Post p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findFeedFirstPage(Pageable pageable);
+
+    @Query("SELECT p.id FROM Post p " +
+            "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findFeedPageBefore(@Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") Long id,
+                                  Pageable pageable);
+
+    @Query("SELECT p.id FROM Post p JOIN p.hashtags h WHERE h.tag = :tag " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findIdsByHashtagNewestFirst(@Param("tag") String tag, Pageable pageable);
+
+    @Query("SELECT h.tag FROM Post p JOIN p.hashtags h WHERE p.id = :postId")
+    List<String> findTagsById(@Param("postId") Long postId);
+
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt FROM Post p " +
+            "WHERE p.user.id = :userId OR p.user.id IN (" +
+            "SELECT f.followee.id FROM Follow f " +
+            "WHERE f.follower.id = :userId AND f.followee.followerCount < :threshold) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostKey> findHomeTimelineKeys(@Param("userId") Long userId,
+                                       @Param("threshold") int celebrityThreshold,
+                                       Pageable pageable);
+
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt FROM Post p " +
+            "WHERE (p.user.id = :userId OR p.user.id IN (" +
+            "SELECT f.followee.id FROM Follow f " +
+            "WHERE f.follower.id = :userId AND f.followee.followerCount < :threshold)) " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostKey> findHomeTimelineKeysBefore(@Param("userId") Long userId,
+                                             @Param("threshold") int celebrityThreshold,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt FROM Post p WHERE p.user.id IN :authorIds " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostKey> findKeysByAuthors(@Param("authorIds") Collection<Long> authorIds, Pageable pageable);
+
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt FROM Post p WHERE p.user.id IN :authorIds " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostKey> findKeysByAuthorsBefore(@Param("authorIds") Collection<Long> authorIds,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
 }
@@ -0,0 +1,10 @@
+package com.example.minitwitter.repository;
+
+import com.example.minitwitter.entity.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    /** Resolved through the natural-id cache instead of a query on every call. */
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,295 @@
+package com.example.minitwitter.seed;
+
+import com.example.minitwitter.service.IdAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Bulk-loads a production-shaped dataset into an empty schema when the
+ * {@code seed} profile is active. Authorship and follows are Zipfian over
+ * users, likes per post follow a power law, and hashtags co-occur with
+ * their neighbours in tag rank. Every user is {@code user<N>} with the
+ * configured password. Runs before the startup index rebuilds, which only
+ * listen for {@code ApplicationReadyEvent}.
+ */
+@Component
+@Profile("seed")
+public class DatasetGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final int BATCH_SIZE = 5000;
+
+    private static final String[] WORDS = {
+            "the", "coffee", "morning", "code", "deploy", "weekend", "music", "game", "team", "release",
+            "bug", "friday", "travel", "book", "movie", "design", "cloud", "java", "spring",
+            "database", "latency", "cache", "launch", "meeting", "lunch", "sunset", "running", "city",
+            "rain", "build", "review", "feature", "idea", "podcast", "startup", "garden", "pizza",
+            "concert", "keyboard", "terminal", "office", "holiday", "mountain", "ocean", "photo",
+            "recipe", "match", "season", "update", "question", "thread", "news", "today", "tomorrow"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private IdAllocator idAllocator;
+
+    @Value("${minitwitter.seed.users:5000}")
+    private int users;
+
+    @Value("${minitwitter.seed.posts:100000}")
+    private int posts;
+
+    @Value("${minitwitter.seed.hashtags:1000}")
+    private int hashtags;
+
+    @Value("${minitwitter.seed.likes-per-post:10}")
+    private double likesPerPost;
+
+    @Value("${minitwitter.seed.comments-per-post:1}")
+    private double commentsPerPost;
+
+    @Value("${minitwitter.seed.follows-per-user:25}")
+    private int followsPerUser;
+
+    @Value("${minitwitter.seed.zipf-exponent:1.1}")
+    private double zipfExponent;
+
+    @Value("${minitwitter.seed.like-exponent:2.2}")
+    private double likeExponent;
+
+    @Value("${minitwitter.seed.days:30}")
+    private int days;
+
+    @Value("${minitwitter.seed.password:password}")
+    private String password;
+
+    @Value("${minitwitter.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Skipping dataset generation, {} users already present", existing);
+            return;
+        }
+        long start = System.currentTimeMillis();
+        generate(new Random(randomSeed));
+        log.info("Generated {} users, {} posts, {} hashtags in {} ms",
+                users, posts, hashtags, System.currentTimeMillis() - start);
+    }
+
+    private void generate(Random random) {
+        ZipfSampler userRank = new ZipfSampler(users, zipfExponent);
+        ZipfSampler tagRank = new ZipfSampler(hashtags, zipfExponent);
+        ZipfSampler wordRank = new ZipfSampler(WORDS.length, zipfExponent);
+        LocalDateTime end = LocalDateTime.now();
+        LocalDateTime begin = end.minusDays(days);
+        long spanSeconds = Math.max(1, days * 86400L);
+
+        // Follow graph: Zipfian followees, so low ranks become celebrities
+        int[] followerCounts = new int[users + 1];
+        int[] followingCounts = new int[users + 1];
+        List<Object[]> follows = new ArrayList<>();
+        Set<Integer> picked = new HashSet<>();
+        for (int follower = 1; follower <= users; follower++) {
+            int wanted = Math.min(users - 1, powerLaw(random, followsPerUser, likeExponent));
+            picked.clear();
+            picked.add(follower);
+            while (picked.size() <= wanted) {
+                picked.add(pickDistinct(random, userRank, users, picked));
+            }
+            picked.remove(follower);
+            for (int followee : picked) {
+                follows.add(new Object[]{follower, followee, Timestamp.valueOf(begin)});
+                followerCounts[followee]++;
+                followingCounts[follower]++;
+            }
+        }
+
+        String passwordHash = passwordEncoder.encode(password);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        String userSql = "INSERT INTO users (username, email, password, full_name, created_at, " +
+                "follower_count, following_count) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        for (int i = 1; i <= users; i++) {
+            batch.add(new Object[]{"user" + i, "user" + i + "@example.com", passwordHash, "User " + i,
+                    Timestamp.valueOf(begin), followerCounts[i], followingCounts[i]});
+            flush(userSql, batch, i == users);
+        }
+        long userBase = minId("users");
+
+        String tagSql = "INSERT INTO hashtags (tag, created_at) VALUES (?, ?)";
+        for (int i = 1; i <= hashtags; i++) {
+            batch.add(new Object[]{"tag" + i, Timestamp.valueOf(begin)});
+            flush(tagSql, batch, i == hashtags);
+        }
+        long tagBase = minId("hashtags");
+
+        String followSql = "INSERT INTO follows (follower_id, followee_id, created_at) VALUES (?, ?, ?)";
+        for (int i = 0; i < follows.size(); i++) {
+            Object[] row = follows.get(i);
+            batch.add(new Object[]{userBase + (int) row[0] - 1, userBase + (int) row[1] - 1, row[2]});
+            flush(followSql, batch, i == follows.size() - 1);
+        }
+        follows.clear();
+
+        // Posts: Zipfian authors, 0-3 tags where later tags cluster around the first
+        int[] likeCounts = new int[posts + 1];
+        int[] commentCounts = new int[posts + 1];
+        int[][] postTags = new int[posts + 1][];
+        LocalDateTime[] postTimes = new LocalDateTime[posts + 1];
+        long[] postIds = idAllocator.allocate(IdAllocator.POSTS, posts);
+        String postSql = "INSERT INTO posts (id, content, user_id, created_at, like_count, comment_count) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+        for (int i = 1; i <= posts; i++) {
+            postTags[i] = pickTags(random, tagRank);
+            postTimes[i] = begin.plusSeconds(spanSeconds * i / (posts + 1));
+            likeCounts[i] = Math.min(users, powerLaw(random, likesPerPost, likeExponent));
+            commentCounts[i] = geometric(random, commentsPerPost);
+
+            StringBuilder content = new StringBuilder();
+            int words = 6 + random.nextInt(15);
+            for (int w = 0; w < words; w++) {
+                content.append(WORDS[wordRank.sample(random) - 1]).append(' ');
+            }
+            for (int tag : postTags[i]) {
+                content.append("#tag").append(tag).append(' ');
+            }
+            batch.add(new Object[]{postIds[i - 1], content.toString().trim(), userBase + userRank.sample(random) - 1,
+                    Timestamp.valueOf(postTimes[i]), likeCounts[i], commentCounts[i]});
+            flush(postSql, batch, i == posts);
+        }
+        String postTagSql = "INSERT INTO post_hashtags (post_id, hashtag_id) VALUES (?, ?)";
+        for (int i = 1; i <= posts; i++) {
+            for (int tag : postTags[i]) {
+                batch.add(new Object[]{postIds[i - 1], tagBase + tag - 1});
+            }
+            flush(postTagSql, batch, i == posts);
+        }
+
+        long[] likeIds = idAllocator.allocate(IdAllocator.LIKES, sum(likeCounts));
+        int likeIndex = 0;
+        String likeSql = "INSERT INTO likes (id, user_id, post_id, created_at) VALUES (?, ?, ?, ?)";
+        for (int i = 1; i <= posts; i++) {
+            picked.clear();
+            while (picked.size() < likeCounts[i]) {
+                picked.add(pickDistinct(random, userRank, users, picked));
+            }
+            for (int userId : picked) {
+                batch.add(new Object[]{likeIds[likeIndex++], userBase + userId - 1, postIds[i - 1],
+                        Timestamp.valueOf(after(postTimes[i], random, end))});
+            }
+            flush(likeSql, batch, i == posts);
+        }
+
+        long[] commentIds = idAllocator.allocate(IdAllocator.COMMENTS, sum(commentCounts));
+        int commentIndex = 0;
+        String commentSql = "INSERT INTO comments (id, content, user_id, post_id, created_at, reply_count) " +
+                "VALUES (?, ?, ?, ?, ?, 0)";
+        for (int i = 1; i <= posts; i++) {
+            for (int c = 0; c < commentCounts[i]; c++) {
+                batch.add(new Object[]{commentIds[commentIndex++], "Reply about " + WORDS[wordRank.sample(random) - 1],
+                        userBase + userRank.sample(random) - 1, postIds[i - 1],
+                        Timestamp.valueOf(after(postTimes[i], random, end))});
+            }
+            flush(commentSql, batch, i == posts);
+        }
+    }
+
+    private int[] pickTags(Random random, ZipfSampler tagRank) {
+        int count = random.nextInt(4);
+        int[] tags = new int[count];
+        for (int t = 0; t < count; t++) {
+            int tag;
+            do {
+                if (t > 0 && random.nextDouble() < 0.7) {
+                    // Co-occurring tags sit next to the post's primary tag
+                    tag = Math.floorMod(tags[0] - 1 + random.nextInt(11) - 5, hashtags) + 1;
+                } else {
+                    tag = tagRank.sample(random);
+                }
+            } while (contains(tags, t, tag));
+            tags[t] = tag;
+        }
+        return tags;
+    }
+
+    private static int sum(int[] values) {
+        int total = 0;
+        for (int value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Zipfian pick that falls back to uniform once the popular ranks are taken. */
+    private static int pickDistinct(Random random, ZipfSampler sampler, int n, Set<Integer> taken) {
+        int candidate = sampler.sample(random);
+        while (taken.contains(candidate)) {
+            candidate = 1 + random.nextInt(n);
+        }
+        return candidate;
+    }
+
+    /** Pareto-distributed count with the given mean and tail exponent (> 2). */
+    private static int powerLaw(Random random, double mean, double exponent) {
+        double shape = exponent - 1;
+        double scale = mean * (shape - 1) / shape;
+        return (int) (scale / Math.pow(1 - random.nextDouble(), 1 / shape));
+    }
+
+    private static int geometric(Random random, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        double p = 1 / (1 + mean);
+        return (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+    }
+
+    private static LocalDateTime after(LocalDateTime time, Random random, LocalDateTime end) {
+        LocalDateTime later = time.plusSeconds(random.nextInt(86400));
+        return later.isAfter(end) ? end : later;
+    }
+
+    private long minId(String table) {
+        Long id = jdbcTemplate.queryForObject("SELECT MIN(id) FROM " + table, Long.class);
+        return id != null ? id : 1;
+    }
+
+    private void flush(String sql, List<Object[]> batch, boolean last) {
+        if (batch.size() >= BATCH_SIZE || (last && !batch.isEmpty())) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+}
@@ -1,37 +1,61 @@
 package com.example.minitwitter.service;
 
 
+import com.example.minitwitter.config.PrimaryReads;
 import com.example.minitwitter.dto.LoginRequest;
 import com.example.minitwitter.dto.RegisterRequest;
 import com.example.minitwitter.entity.User;
 import com.example.minitwitter.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+/**
+ * Not transactional on purpose: password hashing may queue behind other
+ * logins, and it must not hold a pooled connection while it waits.
+ */
 @Service
-@Transactional
+@Timed("minitwitter.service")
 public class AuthService {
 
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
-    public User login(LoginRequest request) {
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    public User login(LoginRequest request, String clientAddress) {
+        loginThrottle.checkAddress(clientAddress);
+        loginThrottle.checkUsername(request.getUsername());
+
+        // From the primary: a user who has just registered may not have reached the replicas
+        User user = PrimaryReads.call(() -> userRepository.findByUsername(request.getUsername())).orElse(null);
+        if (user == null) {
+            loginThrottle.recordAddressAttempt(clientAddress);
+            throw new RuntimeException("User not found");
+        }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
+            loginThrottle.recordFailure(clientAddress, request.getUsername());
             throw new RuntimeException("Invalid password");
         }
+        loginThrottle.recordSuccess(request.getUsername());
+
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHasher.encode(request.getPassword()));
+            userRepository.updatePassword(user.getId(), user.getPassword());
+        }
 
         return user;
     }
 
-    public User register(RegisterRequest request) {
+    public User register(RegisterRequest request, String clientAddress) {
+        loginThrottle.checkAddress(clientAddress);
+        loginThrottle.recordAddressAttempt(clientAddress);
+
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new RuntimeException("Username already exists");
         }
@@ -43,7 +67,7 @@ public class AuthService {
         User user = new User(
                 request.getUsername(),
                 request.getEmail(),
-                passwordEncoder.encode(request.getPassword()),
+                passwordHasher.encode(request.getPassword()),
                 request.getFullName()
         );
 
@@ -0,0 +1,544 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.dto.IngestRecord;
+import com.example.minitwitter.dto.IngestResult;
+import com.example.minitwitter.event.PostCreatedEvent;
+import com.example.minitwitter.event.PostsImportedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads NDJSON streams of posts, likes and comments in large JDBC batches.
+ * Lines are parsed on the request thread into chunks of {@code chunk-size}
+ * records; each chunk is validated and written in its own transaction on
+ * the writer pool while the next one is read. A request never has more than
+ * one chunk in flight, so a slow database stops the body from being read
+ * and TCP pushes back on the client.
+ * <p>
+ * Post ids are taken from {@link IdAllocator} as chunks are handed off,
+ * which lets likes and comments refer to a post earlier in the same stream
+ * by its {@code ref}. Imports are treated as backfill: each committed
+ * chunk publishes one {@link PostsImportedEvent} that brings the indexes,
+ * feed versions, timelines and counter columns up to date, but imported
+ * rows never reach trending or live streams.
+ */
+@Service
+public class BulkIngestService {
+
+    private static final int MAX_CONTENT_LENGTH = 280;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_HASHTAG_ATTEMPTS = 3;
+    private static final int LOOKUP_SLICE = 500;
+
+    private static final String INSERT_POST_SQL =
+            "INSERT INTO posts (id, content, user_id, created_at, like_count, comment_count) VALUES (?, ?, ?, ?, 0, 0)";
+
+    private static final String INSERT_POST_HASHTAG_SQL =
+            "INSERT INTO post_hashtags (post_id, hashtag_id) VALUES (?, ?)";
+
+    private static final String INSERT_LIKE_SQL =
+            "INSERT INTO likes (id, user_id, post_id, created_at) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_COMMENT_SQL =
+            "INSERT INTO comments (id, content, user_id, post_id, created_at, reply_count) VALUES (?, ?, ?, ?, ?, 0)";
+
+    private final ThreadPoolExecutor writers;
+    private final Semaphore requests;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdAllocator idAllocator;
+
+    @Autowired
+    private HashtagExtractor hashtagExtractor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${minitwitter.ingest.chunk-size:5000}")
+    private int chunkSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    // Each request keeps at most one chunk queued or running, so the queue is bounded by max-concurrent-requests
+    public BulkIngestService(@Value("${minitwitter.ingest.writer-threads:2}") int threads,
+                             @Value("${minitwitter.ingest.max-concurrent-requests:2}") int maxRequests) {
+        this.writers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-ingest");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.requests = new Semaphore(maxRequests);
+    }
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        new ExecutorServiceMetrics(writers, "bulk-ingest", List.of()).bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.shutdownNow();
+    }
+
+    public IngestResult ingest(InputStream body) throws IOException {
+        if (!requests.tryAcquire()) {
+            throw new TooManyRequestsException("Too many bulk ingests in progress", 5);
+        }
+        long start = System.currentTimeMillis();
+        Ingest ingest = new Ingest();
+        Future<?> inFlight = null;
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            Chunk chunk = new Chunk();
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                IngestRecord record;
+                try {
+                    record = objectMapper.readValue(line, IngestRecord.class);
+                } catch (JsonProcessingException e) {
+                    ingest.reject(lineNumber, "malformed JSON");
+                    continue;
+                }
+                if (!chunk.add(lineNumber, record)) {
+                    ingest.reject(lineNumber, "unknown type " + record.getType());
+                } else if (chunk.size() >= chunkSize) {
+                    inFlight = submit(ingest, chunk, inFlight);
+                    chunk = new Chunk();
+                }
+            }
+            if (chunk.size() > 0) {
+                inFlight = submit(ingest, chunk, inFlight);
+            }
+            await(inFlight);
+            inFlight = null;
+        } finally {
+            if (inFlight != null) {
+                // The client went away mid-stream; let the running chunk finish before freeing the slot
+                try {
+                    await(inFlight);
+                } catch (RuntimeException ignored) {
+                }
+            }
+            requests.release();
+        }
+        return ingest.result(System.currentTimeMillis() - start);
+    }
+
+    private Future<?> submit(Ingest ingest, Chunk chunk, Future<?> previous) {
+        await(previous);
+        long[] postIds = idAllocator.allocate(IdAllocator.POSTS, chunk.posts.size());
+        for (int i = 0; i < postIds.length; i++) {
+            Entry post = chunk.posts.get(i);
+            post.id = postIds[i];
+            if (post.record.getRef() != null && ingest.refs.putIfAbsent(post.record.getRef(), post.id) != null) {
+                post.error = "duplicate ref " + post.record.getRef();
+            }
+        }
+        resolveRefs(ingest, chunk.likes);
+        resolveRefs(ingest, chunk.comments);
+        return writers.submit(() -> write(ingest, chunk));
+    }
+
+    private void resolveRefs(Ingest ingest, List<Entry> entries) {
+        for (Entry entry : entries) {
+            String ref = entry.record.getPostRef();
+            if (ref != null) {
+                entry.postId = ingest.refs.get(ref);
+                if (entry.postId == null) {
+                    entry.error = "unknown postRef " + ref;
+                }
+            } else if (entry.postId == null) {
+                entry.error = "postId or postRef is required";
+            }
+        }
+    }
+
+    private void write(Ingest ingest, Chunk chunk) {
+        resolveUsers(ingest, chunk);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Entry> posts = new ArrayList<>();
+        Set<String> tags = new HashSet<>();
+        Set<Long> newPostIds = new HashSet<>();
+        for (Entry entry : chunk.posts) {
+            if (accept(ingest, entry, true)) {
+                entry.tags = hashtagExtractor.extract(entry.record.getContent(), entry.record.getHashtags());
+                tags.addAll(entry.tags);
+                newPostIds.add(entry.id);
+                posts.add(entry);
+            }
+        }
+        resolveHashtags(ingest, tags);
+
+        Set<Long> referenced = new HashSet<>();
+        for (Entry entry : chunk.reactions()) {
+            if (entry.postId != null && !newPostIds.contains(entry.postId)) {
+                referenced.add(entry.postId);
+            }
+        }
+        Set<Long> existing = new HashSet<>();
+        lookup("SELECT id FROM posts WHERE id IN ", referenced, rs -> existing.add(rs.getLong(1)));
+
+        List<Entry> likes = new ArrayList<>();
+        List<Entry> comments = new ArrayList<>();
+        for (Entry entry : chunk.reactions()) {
+            if (entry.error == null && entry.postId != null
+                    && !newPostIds.contains(entry.postId) && !existing.contains(entry.postId)) {
+                entry.error = "post not found";
+            }
+            if (accept(ingest, entry, entry.type == Type.COMMENT)) {
+                (entry.type == Type.LIKE ? likes : comments).add(entry);
+            }
+        }
+
+        // Drop repeats and likes already stored up front, so the batch is plain INSERTs
+        Map<Long, Set<Long>> likers = new HashMap<>();
+        Set<Long> likedExisting = new HashSet<>();
+        for (Entry like : likes) {
+            if (!newPostIds.contains(like.postId)) {
+                likedExisting.add(like.postId);
+            }
+        }
+        lookup("SELECT user_id, post_id FROM likes WHERE post_id IN ", likedExisting,
+                rs -> likers.computeIfAbsent(rs.getLong(2), id -> new HashSet<>()).add(rs.getLong(1)));
+        int likesSubmitted = likes.size();
+        likes.removeIf(like -> !likers.computeIfAbsent(like.postId, id -> new HashSet<>()).add(like.userId));
+
+        List<Object[]> postRows = new ArrayList<>(posts.size());
+        List<Object[]> tagRows = new ArrayList<>();
+        for (Entry post : posts) {
+            post.createdAt = post.record.getCreatedAt() != null ? post.record.getCreatedAt() : now;
+            postRows.add(new Object[]{post.id, post.record.getContent(), post.userId, Timestamp.valueOf(post.createdAt)});
+            for (String tag : post.tags) {
+                tagRows.add(new Object[]{post.id, ingest.tags.get(tag)});
+            }
+        }
+        long[] likeIds = idAllocator.allocate(IdAllocator.LIKES, likes.size());
+        List<Object[]> likeRows = new ArrayList<>(likes.size());
+        for (int i = 0; i < likes.size(); i++) {
+            Entry like = likes.get(i);
+            LocalDateTime createdAt = like.record.getCreatedAt() != null ? like.record.getCreatedAt() : now;
+            likeRows.add(new Object[]{likeIds[i], like.userId, like.postId, Timestamp.valueOf(createdAt)});
+        }
+        long[] commentIds = idAllocator.allocate(IdAllocator.COMMENTS, comments.size());
+        List<Object[]> commentRows = new ArrayList<>(comments.size());
+        for (int i = 0; i < comments.size(); i++) {
+            Entry comment = comments.get(i);
+            comment.id = commentIds[i];
+            LocalDateTime createdAt = comment.record.getCreatedAt() != null ? comment.record.getCreatedAt() : now;
+            commentRows.add(new Object[]{comment.id, comment.record.getContent(), comment.userId, comment.postId,
+                    Timestamp.valueOf(createdAt)});
+        }
+
+        int added;
+        try {
+            try {
+                added = commit(posts, postRows, tagRows, likes, likeRows, comments, commentRows, INSERT_LIKE_SQL);
+            } catch (DuplicateKeyException e) {
+                // A like arrived through the API since the check; the MERGE skips it
+                added = commit(posts, postRows, tagRows, likes, likeRows, comments, commentRows, LikeWriteBuffer.INSERT_SQL);
+            }
+        } catch (DataAccessException e) {
+            ingest.failChunk(chunk, e.getMostSpecificCause().getMessage());
+            return;
+        }
+        ingest.written(posts.size(), added, likesSubmitted - added, comments.size());
+    }
+
+    /** Writes one chunk in a transaction and returns the number of likes inserted. */
+    private int commit(List<Entry> posts, List<Object[]> postRows, List<Object[]> tagRows,
+                       List<Entry> likes, List<Object[]> likeRows,
+                       List<Entry> comments, List<Object[]> commentRows, String likeSql) {
+        return transactionTemplate.execute(status -> {
+            // Parents before children, one statement shape per batch
+            batch(INSERT_POST_SQL, postRows);
+            batch(INSERT_POST_HASHTAG_SQL, tagRows);
+            int[] inserted = batch(likeSql, likeRows);
+            batch(INSERT_COMMENT_SQL, commentRows);
+
+            List<PostCreatedEvent> created = new ArrayList<>(posts.size());
+            for (Entry post : posts) {
+                created.add(new PostCreatedEvent(post.id, post.userId,
+                        post.record.getContent(), post.createdAt, new ArrayList<>(post.tags)));
+            }
+            Map<Long, Integer> likesAdded = new HashMap<>();
+            int added = 0;
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i] > 0) {
+                    likesAdded.merge(likes.get(i).postId, 1, Integer::sum);
+                    added++;
+                }
+            }
+            Map<Long, Integer> commentsAdded = new HashMap<>();
+            for (Entry comment : comments) {
+                commentsAdded.merge(comment.postId, 1, Integer::sum);
+            }
+            // Delivered only once the chunk commits
+            eventPublisher.publishEvent(new PostsImportedEvent(created, likesAdded, commentsAdded));
+            return added;
+        });
+    }
+
+    private boolean accept(Ingest ingest, Entry entry, boolean needsContent) {
+        if (entry.error == null && needsContent) {
+            String content = entry.record.getContent();
+            if (content == null || content.isBlank()) {
+                entry.error = "content is required";
+            } else if (content.length() > MAX_CONTENT_LENGTH) {
+                entry.error = "content is longer than " + MAX_CONTENT_LENGTH + " characters";
+            }
+        }
+        if (entry.error == null && entry.record.getUsername() == null) {
+            entry.error = "username is required";
+        }
+        if (entry.error == null) {
+            entry.userId = ingest.users.get(entry.record.getUsername());
+            if (entry.userId == null) {
+                entry.error = "unknown user " + entry.record.getUsername();
+            }
+        }
+        if (entry.error != null) {
+            ingest.reject(entry.line, entry.error);
+            return false;
+        }
+        return true;
+    }
+
+    private void resolveUsers(Ingest ingest, Chunk chunk) {
+        Set<String> missing = new HashSet<>();
+        for (List<Entry> entries : List.of(chunk.posts, chunk.likes, chunk.comments)) {
+            for (Entry entry : entries) {
+                String username = entry.record.getUsername();
+                if (username != null && !ingest.users.containsKey(username)) {
+                    missing.add(username);
+                }
+            }
+        }
+        lookup("SELECT id, username FROM users WHERE username IN ", missing,
+                rs -> ingest.users.put(rs.getString(2), rs.getLong(1)));
+        // Remember unknown names too, so they are not looked up again for every chunk
+        for (String username : missing) {
+            ingest.users.putIfAbsent(username, null);
+        }
+    }
+
+    /** Same approach as post creation: read what exists, MERGE the rest, retry a lost race. */
+    private void resolveHashtags(Ingest ingest, Set<String> tags) {
+        for (int attempt = 1; ; attempt++) {
+            List<String> missing = new ArrayList<>();
+            for (String tag : tags) {
+                if (!ingest.tags.containsKey(tag)) {
+                    missing.add(tag);
+                }
+            }
+            lookup("SELECT id, tag FROM hashtags WHERE tag IN ", missing, rs -> ingest.tags.put(rs.getString(2), rs.getLong(1)));
+            missing.removeIf(ingest.tags::containsKey);
+            if (missing.isEmpty()) {
+                return;
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            try {
+                jdbcTemplate.batchUpdate(PostService.INSERT_HASHTAG_SQL, missing, missing.size(), (ps, tag) -> {
+                    ps.setString(1, tag);
+                    ps.setTimestamp(2, now);
+                });
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_HASHTAG_ATTEMPTS) {
+                    throw new RuntimeException("Could not save hashtags");
+                }
+            }
+        }
+    }
+
+    private void lookup(String sqlPrefix, Collection<?> keys, RowCallbackHandler handler) {
+        List<Object> remaining = new ArrayList<>(keys);
+        for (int from = 0; from < remaining.size(); from += LOOKUP_SLICE) {
+            List<Object> slice = remaining.subList(from, Math.min(from + LOOKUP_SLICE, remaining.size()));
+            String placeholders = String.join(",", Collections.nCopies(slice.size(), "?"));
+            jdbcTemplate.query(sqlPrefix + "(" + placeholders + ")", handler, slice.toArray());
+        }
+    }
+
+    private int[] batch(String sql, List<Object[]> rows) {
+        return rows.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(sql, rows);
+    }
+
+    private static void await(Future<?> future) {
+        if (future == null) {
+            return;
+        }
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Bulk ingest interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Bulk ingest failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private enum Type { POST, LIKE, COMMENT }
+
+    private static final class Entry {
+        private final int line;
+        private final Type type;
+        private final IngestRecord record;
+        private long id;
+        private Long postId;
+        private Long userId;
+        private Set<String> tags;
+        private LocalDateTime createdAt;
+        private String error;
+
+        private Entry(int line, Type type, IngestRecord record) {
+            this.line = line;
+            this.type = type;
+            this.record = record;
+            this.postId = record.getPostId();
+        }
+    }
+
+    private static final class Chunk {
+        private final List<Entry> posts = new ArrayList<>();
+        private final List<Entry> likes = new ArrayList<>();
+        private final List<Entry> comments = new ArrayList<>();
+
+        private boolean add(int line, IngestRecord record) {
+            String type = record.getType() != null ? record.getType() : "";
+            switch (type) {
+                case "post" -> posts.add(new Entry(line, Type.POST, record));
+                case "like" -> likes.add(new Entry(line, Type.LIKE, record));
+                case "comment" -> comments.add(new Entry(line, Type.COMMENT, record));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private List<Entry> reactions() {
+            List<Entry> reactions = new ArrayList<>(likes.size() + comments.size());
+            reactions.addAll(likes);
+            reactions.addAll(comments);
+            return reactions;
+        }
+
+        private int size() {
+            return posts.size() + likes.size() + comments.size();
+        }
+    }
+
+    /**
+     * Per-request state. {@code refs} is only touched by the request thread
+     * and the lookup caches only by the chunk being written; the counters are
+     * shared by both.
+     */
+    private static final class Ingest {
+        private final Map<String, Long> refs = new HashMap<>();
+        private final Map<String, Long> users = new HashMap<>();
+        private final Map<String, Long> tags = new HashMap<>();
+        private final List<String> errors = new ArrayList<>();
+        private long posts;
+        private long likes;
+        private long comments;
+        private long duplicateLikes;
+        private long rejected;
+
+        private synchronized void reject(int line, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + line + ": " + reason);
+            }
+        }
+
+        private synchronized void failChunk(Chunk chunk, String reason) {
+            int first = Integer.MAX_VALUE;
+            int last = 0;
+            int count = 0;
+            for (List<Entry> entries : List.of(chunk.posts, chunk.likes, chunk.comments)) {
+                for (Entry entry : entries) {
+                    if (entry.error == null) {
+                        first = Math.min(first, entry.line);
+                        last = Math.max(last, entry.line);
+                        count++;
+                    }
+                }
+            }
+            if (count == 0) {
+                return;
+            }
+            rejected += count;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("lines " + first + "-" + last + ": " + reason);
+            }
+        }
+
+        private synchronized void written(long posts, long likes, long duplicateLikes, long comments) {
+            this.posts += posts;
+            this.likes += likes;
+            this.duplicateLikes += duplicateLikes;
+            this.comments += comments;
+        }
+
+        private synchronized IngestResult result(long elapsedMs) {
+            return new IngestResult(posts, likes, comments, duplicateLikes, rejected,
+                    new ArrayList<>(errors), elapsedMs);
+        }
+    }
+}
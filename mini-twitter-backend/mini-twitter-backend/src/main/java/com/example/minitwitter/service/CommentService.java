@@ -1,21 +1,29 @@
 package com.example.minitwitter.service;
 
+import com.example.minitwitter.dto.CommentPage;
 import com.example.minitwitter.dto.CommentRequest;
 import com.example.minitwitter.dto.CommentResponse;
+import com.example.minitwitter.dto.FeedCursor;
+import com.example.minitwitter.dto.UserPrincipal;
 import com.example.minitwitter.entity.Comment;
 import com.example.minitwitter.entity.Post;
-import com.example.minitwitter.entity.User;
+import com.example.minitwitter.event.CommentCreatedEvent;
 import com.example.minitwitter.repository.CommentRepository;
 import com.example.minitwitter.repository.PostRepository;
 import com.example.minitwitter.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("minitwitter.service")
 @Transactional
 public class CommentService {
 
@@ -28,25 +36,110 @@ public class CommentService {
     @Autowired
     private UserRepository userRepository;
 
-    public Comment createComment(Long postId, CommentRequest request, String username) {
-        User user = userRepository.findByUsername(username)
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private PostCounterBuffer postCounterBuffer;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public CommentResponse createComment(Long postId, CommentRequest request, Long userId) {
+        UserPrincipal author = userCache.get(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
 
-        Comment comment = new Comment(request.getContent(), user, post);
-        return commentRepository.save(comment);
+        Comment parent = null;
+        if (request.getParentId() != null) {
+            parent = commentRepository.findById(request.getParentId())
+                    .filter(candidate -> candidate.getPost().getId().equals(post.getId()))
+                    .orElseThrow(() -> new RuntimeException("Parent comment not found"));
+            // Replying to a reply joins the top-level thread it belongs to
+            if (parent.getParent() != null) {
+                parent = parent.getParent();
+            }
+        }
+
+        Comment comment = new Comment(request.getContent(), userRepository.getReferenceById(author.getId()), post, parent);
+        // Flushed so the response carries the insert-time createdAt
+        Comment saved = commentRepository.saveAndFlush(comment);
+        eventPublisher.publishEvent(new CommentCreatedEvent(post.getId(), saved.getId(), author.getId(),
+                parent != null ? parent.getId() : null));
+        return new CommentResponse(saved, author);
     }
 
+    @Transactional(readOnly = true)
     public List<CommentResponse> getCommentsByPost(Long postId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
 
-        List<Comment> comments = commentRepository.findByPostOrderByCreatedAtDesc(post);
+        List<Comment> comments = commentRepository.findWithAuthorByPostId(post.getId());
 
         return comments.stream()
-                .map(CommentResponse::new)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
+
+    /** Top-level comments, newest first, with each comment's reply count. */
+    @Transactional(readOnly = true)
+    public CommentPage getCommentPage(Long postId, String cursor, int limit) {
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, PostService.MAX_PAGE_SIZE));
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<Comment> comments;
+        if (cursor == null || cursor.isEmpty()) {
+            comments = commentRepository.findTopLevelFirstPage(postId, window);
+        } else {
+            FeedCursor position = FeedCursor.decode(cursor);
+            comments = commentRepository.findTopLevelPageBefore(postId, position.getCreatedAt(), position.getId(), window);
+        }
+        return toPage(comments, pageSize);
+    }
+
+    /** Replies to a top-level comment, oldest first. */
+    @Transactional(readOnly = true)
+    public CommentPage getReplyPage(Long postId, Long commentId, String cursor, int limit) {
+        Comment parent = commentRepository.findById(commentId)
+                .filter(candidate -> candidate.getPost().getId().equals(postId))
+                .orElseThrow(() -> new RuntimeException("Comment not found"));
+
+        int pageSize = Math.max(1, Math.min(limit, PostService.MAX_PAGE_SIZE));
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<Comment> replies;
+        if (cursor == null || cursor.isEmpty()) {
+            replies = commentRepository.findRepliesFirstPage(parent.getId(), window);
+        } else {
+            FeedCursor position = FeedCursor.decode(cursor);
+            replies = commentRepository.findRepliesPageAfter(parent.getId(), position.getCreatedAt(), position.getId(), window);
+        }
+        return toPage(replies, pageSize);
+    }
+
+    private CommentPage toPage(List<Comment> comments, int pageSize) {
+        boolean hasMore = comments.size() > pageSize;
+        List<CommentResponse> page = new ArrayList<>(Math.min(comments.size(), pageSize));
+        for (Comment comment : hasMore ? comments.subList(0, pageSize) : comments) {
+            page.add(toResponse(comment));
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            CommentResponse last = page.get(page.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CommentPage(page, nextCursor);
+    }
+
+    // Stored reply counts lag the replies still waiting in the counter buffer
+    private CommentResponse toResponse(Comment comment) {
+        CommentResponse response = new CommentResponse(comment);
+        response.setReplyCount(response.getReplyCount() + postCounterBuffer.pendingReplies(comment.getId()));
+        return response;
+    }
 }
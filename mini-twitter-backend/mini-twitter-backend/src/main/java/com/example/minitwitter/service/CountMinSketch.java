@@ -0,0 +1,68 @@
+package com.example.minitwitter.service;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size frequency sketch. Estimates never undercount and overcount by
+ * at most roughly {@code total / width} with high probability, regardless of
+ * how many distinct keys are added.
+ */
+public class CountMinSketch {
+
+    private final int[][] counts;
+    private final int mask;
+
+    public CountMinSketch(int depth, int width) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("width must be a power of two");
+        }
+        this.counts = new int[depth][width];
+        this.mask = width - 1;
+    }
+
+    public void add(String key) {
+        long h1 = hash1(key);
+        long h2 = hash2(key);
+        for (int row = 0; row < counts.length; row++) {
+            counts[row][slot(h1, h2, row)]++;
+        }
+    }
+
+    public int estimate(String key) {
+        long h1 = hash1(key);
+        long h2 = hash2(key);
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < counts.length; row++) {
+            min = Math.min(min, counts[row][slot(h1, h2, row)]);
+        }
+        return min;
+    }
+
+    public void clear() {
+        for (int[] row : counts) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    // Double hashing: row i uses h1 + i * h2
+    private int slot(long h1, long h2, int row) {
+        return (int) ((h1 + row * h2) & mask);
+    }
+
+    private static long hash1(String key) {
+        long h = key.hashCode();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long hash2(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h | 1;
+    }
+}
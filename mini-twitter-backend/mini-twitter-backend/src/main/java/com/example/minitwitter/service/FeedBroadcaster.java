@@ -0,0 +1,358 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.config.PrimaryReads;
+import com.example.minitwitter.dto.PostResponse;
+import com.example.minitwitter.event.CommentCreatedEvent;
+import com.example.minitwitter.event.LikeToggledEvent;
+import com.example.minitwitter.event.PostCreatedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes new posts and coalesced like/comment count deltas to connected
+ * server-sent-event clients. Every payload is serialised once and queued on
+ * each connection's bounded buffer; a small pool drains the buffers, and a
+ * connection whose buffer overflows is closed so the client reconnects and
+ * refetches instead of holding memory for a consumer that cannot keep up.
+ * A send blocked longer than {@code send-timeout-ms} drops its connection
+ * the same way. The container cannot abandon a blocked write before its own
+ * write timeout, so each send blocked on its client adds a sender thread, up
+ * to {@code max-stalled-sends}, until that write completes or fails; the
+ * other connections keep their full pool meanwhile. Connections are only ever closed from the
+ * thread draining them: the emitter serialises {@code send} and
+ * {@code complete}, so closing from anywhere else would wait on the stuck
+ * send.
+ */
+@Component
+public class FeedBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedBroadcaster.class);
+
+    // A send into a socket with room returns at once; one running this long is waiting on the client
+    private static final long BLOCKED_SEND_MILLIS = 250;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Includes dropped connections whose last send is still blocked
+    private final Set<Subscriber> sending = ConcurrentHashMap.newKeySet();
+    private final Map<Long, int[]> pendingCounts = new HashMap<>();
+    private final ThreadPoolExecutor senders;
+    private final int sendThreads;
+
+    @Autowired
+    private FeedHydrator feedHydrator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${minitwitter.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${minitwitter.stream.max-connections:20000}")
+    private int maxConnections;
+
+    @Value("${minitwitter.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${minitwitter.stream.send-timeout-ms:5000}")
+    private long sendTimeoutMillis;
+
+    @Value("${minitwitter.stream.max-stalled-sends:64}")
+    private int maxStalledSends;
+
+    public FeedBroadcaster(@Value("${minitwitter.stream.send-threads:4}") int sendThreads) {
+        this.sendThreads = sendThreads;
+        this.senders = new ThreadPoolExecutor(sendThreads, sendThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "feed-stream-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxConnections) {
+            throw new RuntimeException("Too many stream connections");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        emitter.onCompletion(() -> forget(subscriber));
+        emitter.onTimeout(() -> forget(subscriber));
+        emitter.onError(error -> forget(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int getConnectionCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        // Hydrate off the request thread; the author is already waiting on the commit.
+        // A replica may not have the post yet
+        senders.execute(() -> {
+            List<PostResponse> posts = PrimaryReads.call(() -> feedHydrator.hydrate(List.of(event.getPostId()), null));
+            if (!posts.isEmpty()) {
+                broadcast("post", posts.get(0));
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onLikeToggled(LikeToggledEvent event) {
+        recordCounts(event.getPostId(), event.isLiked() ? 1 : -1, 0);
+    }
+
+    @TransactionalEventListener
+    public void onCommentCreated(CommentCreatedEvent event) {
+        recordCounts(event.getPostId(), 0, 1);
+    }
+
+    private void recordCounts(Long postId, int likeDelta, int commentDelta) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        synchronized (pendingCounts) {
+            int[] delta = pendingCounts.computeIfAbsent(postId, id -> new int[2]);
+            delta[0] += likeDelta;
+            delta[1] += commentDelta;
+        }
+    }
+
+    /** Sends the count deltas collected since the last tick as one event. */
+    @Scheduled(fixedDelayString = "${minitwitter.stream.counts-interval-ms:500}")
+    public void flushCounts() {
+        Map<Long, int[]> drained;
+        synchronized (pendingCounts) {
+            if (pendingCounts.isEmpty()) {
+                return;
+            }
+            drained = new HashMap<>(pendingCounts);
+            pendingCounts.clear();
+        }
+        List<Map<String, Object>> deltas = new ArrayList<>(drained.size());
+        for (Map.Entry<Long, int[]> entry : drained.entrySet()) {
+            Map<String, Object> delta = new LinkedHashMap<>();
+            delta.put("postId", entry.getKey());
+            delta.put("likeDelta", entry.getValue()[0]);
+            delta.put("commentDelta", entry.getValue()[1]);
+            deltas.add(delta);
+        }
+        broadcast("counts", deltas);
+    }
+
+    @Scheduled(fixedDelayString = "${minitwitter.stream.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, Message.HEARTBEAT);
+        }
+    }
+
+    private void broadcast(String name, Object payload) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialise {} stream event: {}", name, e.getMessage());
+            return;
+        }
+        Message message = new Message(name, data);
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, message);
+        }
+    }
+
+    /**
+     * Drops connections whose current send has been blocked for longer than
+     * the send timeout, and sizes the pool so blocked sends do not count
+     * against {@code send-threads}.
+     */
+    @Scheduled(fixedDelay = BLOCKED_SEND_MILLIS)
+    public void checkBlockedSends() {
+        long cutoff = System.currentTimeMillis() - sendTimeoutMillis;
+        for (Subscriber subscriber : sending) {
+            if (!subscriber.dropped && subscriber.isSendStartedBefore(cutoff)) {
+                log.debug("Dropping a feed stream whose send has been blocked for over {} ms", sendTimeoutMillis);
+                drop(subscriber);
+            }
+        }
+        resizeSenders();
+    }
+
+    private synchronized void resizeSenders() {
+        long cutoff = System.currentTimeMillis() - BLOCKED_SEND_MILLIS;
+        int blocked = 0;
+        for (Subscriber subscriber : sending) {
+            if (subscriber.dropped || subscriber.isSendStartedBefore(cutoff)) {
+                blocked++;
+            }
+        }
+        int size = sendThreads + Math.min(blocked, maxStalledSends);
+        if (size > senders.getMaximumPoolSize()) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else if (size < senders.getCorePoolSize()) {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Message message) {
+        if (subscriber.dropped) {
+            return;
+        }
+        if (!subscriber.queue.offer(message)) {
+            // Slow consumer: drop the connection rather than buffer without bound. A full
+            // buffer means its send is stuck, so replace that sender now rather than on the next check
+            drop(subscriber);
+            resizeSenders();
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void drop(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.dropped = true;
+        subscriber.queue.clear();
+        scheduleDrain(subscriber);
+    }
+
+    private void forget(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.dropped = true;
+        subscriber.closed.set(true);
+        subscriber.queue.clear();
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Message message;
+            while (!subscriber.dropped && (message = subscriber.queue.poll()) != null) {
+                SseEmitter.SseEventBuilder event = message == Message.HEARTBEAT ?
+                        SseEmitter.event().comment("heartbeat") :
+                        SseEmitter.event().name(message.name).data(message.data);
+                subscriber.startSend();
+                sending.add(subscriber);
+                try {
+                    subscriber.emitter.send(event);
+                } finally {
+                    sending.remove(subscriber);
+                    subscriber.endSend();
+                }
+            }
+            if (subscriber.dropped) {
+                subscriber.close(null);
+            }
+        } catch (IOException | RuntimeException e) {
+            subscribers.remove(subscriber);
+            subscriber.dropped = true;
+            subscriber.queue.clear();
+            subscriber.close(e);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // A drop or a message may have arrived after the loop's last check
+        boolean pending = subscriber.dropped ? !subscriber.closed.get() : !subscriber.queue.isEmpty();
+        if (pending) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Message> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean dropped;
+        // Zero while no send is in progress
+        private volatile long sendStartedAt;
+
+        private Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private void startSend() {
+            sendStartedAt = System.currentTimeMillis();
+        }
+
+        private void endSend() {
+            sendStartedAt = 0;
+        }
+
+        private boolean isSendStartedBefore(long cutoff) {
+            long started = sendStartedAt;
+            return started != 0 && started < cutoff;
+        }
+
+        private void close(Exception error) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                if (error != null) {
+                    emitter.completeWithError(error);
+                } else {
+                    emitter.complete();
+                }
+            } catch (IllegalStateException e) {
+                // The container already finished the response
+            }
+        }
+    }
+
+    private static final class Message {
+        private static final Message HEARTBEAT = new Message(null, null);
+
+        private final String name;
+        private final String data;
+
+        private Message(String name, String data) {
+            this.name = name;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.dto.FeedCursor;
+import com.example.minitwitter.dto.FeedPage;
+import com.example.minitwitter.dto.PostResponse;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns an ordered list of post ids into {@link PostResponse}s with one
+ * projection query per chunk that returns flat rows: the post, its author's
+ * names, its tags aggregated into one column and whether the viewer likes
+ * it. No entities are loaded, so nothing is dirty-checked. Counts come from
+ * the denormalized post columns plus any deltas still waiting in the
+ * {@link PostCounterBuffer}, and liked flags include likes still waiting in
+ * the {@link LikeWriteBuffer}.
+ */
+@Service
+@Timed("minitwitter.service")
+@Transactional(readOnly = true)
+public class FeedHydrator {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String PAGE_SQL_PREFIX =
+            "SELECT p.id, p.content, p.created_at, p.like_count, p.comment_count, u.username, u.full_name, " +
+            "(SELECT LISTAGG(h.tag, ',') WITHIN GROUP (ORDER BY h.id) FROM post_hashtags ph " +
+            "JOIN hashtags h ON h.id = ph.hashtag_id WHERE ph.post_id = p.id) AS tags, " +
+            "EXISTS (SELECT 1 FROM likes l WHERE l.post_id = p.id AND l.user_id = ?) AS liked " +
+            "FROM posts p JOIN users u ON u.id = p.user_id WHERE p.id IN ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostCounterBuffer postCounterBuffer;
+
+    @Autowired
+    private LikeWriteBuffer likeWriteBuffer;
+
+    /**
+     * Hydrates one feed page. {@code postIds} may hold one id more than
+     * {@code pageSize}; that extra id only signals that a next page exists.
+     */
+    public FeedPage hydratePage(List<Long> postIds, int pageSize, Long currentUserId) {
+        boolean hasMore = postIds.size() > pageSize;
+        List<PostResponse> posts = hydrate(hasMore ? postIds.subList(0, pageSize) : postIds, currentUserId);
+
+        String nextCursor = null;
+        if (hasMore && !posts.isEmpty()) {
+            PostResponse last = posts.get(posts.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new FeedPage(posts, nextCursor);
+    }
+
+    public List<PostResponse> hydrate(List<Long> postIds, Long currentUserId) {
+        List<PostResponse> responses = new ArrayList<>(postIds.size());
+        for (int from = 0; from < postIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = postIds.subList(from, Math.min(from + CHUNK_SIZE, postIds.size()));
+            responses.addAll(hydrateChunk(chunk, currentUserId));
+        }
+        return responses;
+    }
+
+    private List<PostResponse> hydrateChunk(List<Long> postIds, Long currentUserId) {
+        if (postIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Object[] args = new Object[postIds.size() + 1];
+        args[0] = currentUserId;
+        for (int i = 0; i < postIds.size(); i++) {
+            args[i + 1] = postIds.get(i);
+        }
+        String placeholders = String.join(",", Collections.nCopies(postIds.size(), "?"));
+
+        Map<Long, PostResponse> rowsById = new HashMap<>();
+        Set<Long> likedIds = new HashSet<>();
+        jdbcTemplate.query(PAGE_SQL_PREFIX + "(" + placeholders + ")", rs -> {
+            long id = rs.getLong(1);
+            String tags = rs.getString(8);
+            rowsById.put(id, new PostResponse(id, rs.getString(2), rs.getString(6), rs.getString(7),
+                    rs.getObject(3, LocalDateTime.class),
+                    rs.getInt(4) + postCounterBuffer.pendingLikes(id),
+                    rs.getInt(5) + postCounterBuffer.pendingComments(id),
+                    tags != null ? Arrays.asList(tags.split(",")) : new ArrayList<>()));
+            if (rs.getBoolean(9)) {
+                likedIds.add(id);
+            }
+        }, args);
+
+        if (currentUserId != null) {
+            likeWriteBuffer.overlay(currentUserId, postIds, likedIds);
+        }
+
+        List<PostResponse> responses = new ArrayList<>(postIds.size());
+        for (Long id : postIds) {
+            PostResponse response = rowsById.get(id);
+            if (response == null) {
+                continue;
+            }
+            response.setLikedByCurrentUser(likedIds.contains(id));
+            responses.add(response);
+        }
+        return responses;
+    }
+}
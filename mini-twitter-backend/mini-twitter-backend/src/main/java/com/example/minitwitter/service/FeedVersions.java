@@ -0,0 +1,131 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.config.PrimaryReads;
+import com.example.minitwitter.event.CommentCreatedEvent;
+import com.example.minitwitter.event.LikeToggledEvent;
+import com.example.minitwitter.event.PostCreatedEvent;
+import com.example.minitwitter.event.PostsImportedEvent;
+import com.example.minitwitter.event.UserProfileChangedEvent;
+import com.example.minitwitter.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version stamps for the post feeds, bumped after every committed post,
+ * like, comment or profile change: one counter for the global feed and one
+ * per hashtag.
+ * They are exposed as weak ETags that also name the viewer, whose liked
+ * flags are part of the body, and this process's boot id, so a restart
+ * never revalidates a response from before it.
+ */
+@Component
+public class FeedVersions {
+
+    private final String bootId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong feedVersion = new AtomicLong();
+    private final Map<String, AtomicLong> tagVersions = new ConcurrentHashMap<>();
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Value("${minitwitter.feed-versions.post-tags-cache-size:10000}")
+    private int postTagsCacheSize;
+
+    // Tags never change once a post exists, so entries need no invalidation
+    private final Map<Long, List<String>> postTags = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, List<String>> eldest) {
+            return size() > postTagsCacheSize;
+        }
+    };
+
+    public String feedETag(Long viewerId) {
+        return etag(feedVersion.get(), viewerId);
+    }
+
+    public String tagETag(String tag, Long viewerId) {
+        AtomicLong version = tagVersions.get(tag);
+        return etag(version != null ? version.get() : 0, viewerId);
+    }
+
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        synchronized (postTags) {
+            postTags.put(event.getPostId(), event.getHashtags());
+        }
+        bump(event.getHashtags());
+    }
+
+    @TransactionalEventListener
+    public void onLikeToggled(LikeToggledEvent event) {
+        bump(tagsOf(event.getPostId()));
+    }
+
+    @TransactionalEventListener
+    public void onCommentCreated(CommentCreatedEvent event) {
+        bump(tagsOf(event.getPostId()));
+    }
+
+    /**
+     * An imported chunk can touch posts under any tag, and looking up the
+     * tags of every liked or commented post costs more than revalidating
+     * every tag page once.
+     */
+    @TransactionalEventListener
+    public void onPostsImported(PostsImportedEvent event) {
+        for (PostCreatedEvent post : event.getPosts()) {
+            for (String tag : post.getHashtags()) {
+                tagVersions.computeIfAbsent(tag, t -> new AtomicLong());
+            }
+        }
+        bumpAll();
+    }
+
+    /**
+     * Author names are in every page that shows one of their posts, under
+     * tags this class does not track per author.
+     */
+    @TransactionalEventListener
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        bumpAll();
+    }
+
+    public void bumpAll() {
+        feedVersion.incrementAndGet();
+        tagVersions.values().forEach(AtomicLong::incrementAndGet);
+    }
+
+    private void bump(List<String> tags) {
+        feedVersion.incrementAndGet();
+        for (String tag : tags) {
+            tagVersions.computeIfAbsent(tag, t -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private List<String> tagsOf(Long postId) {
+        synchronized (postTags) {
+            List<String> tags = postTags.get(postId);
+            if (tags != null) {
+                return tags;
+            }
+        }
+        List<String> tags = PrimaryReads.call(() -> postRepository.findTagsById(postId));
+        synchronized (postTags) {
+            postTags.put(postId, tags);
+        }
+        return tags;
+    }
+
+    private String etag(long version, Long viewerId) {
+        return "W/\"" + bootId + "-" + version + "-" + (viewerId != null ? viewerId : 0) + "\"";
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.entity.Follow;
+import com.example.minitwitter.entity.User;
+import com.example.minitwitter.event.FollowChangedEvent;
+import com.example.minitwitter.repository.FollowRepository;
+import com.example.minitwitter.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Timed("minitwitter.service")
+@Transactional
+public class FollowService {
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public boolean follow(Long followerId, String followeeUsername) {
+        User follower = userRepository.getReferenceById(followerId);
+        User followee = resolveFollowee(followeeUsername);
+
+        if (follower.getId().equals(followee.getId())) {
+            throw new RuntimeException("Cannot follow yourself");
+        }
+
+        if (followRepository.findByFollowerAndFollowee(follower, followee).isEmpty()) {
+            followRepository.save(new Follow(follower, followee));
+            adjustCounts(follower.getId(), followee.getId(), 1);
+            eventPublisher.publishEvent(new FollowChangedEvent(follower.getId(), followee.getId(), true));
+        }
+        return true;
+    }
+
+    public boolean unfollow(Long followerId, String followeeUsername) {
+        User follower = userRepository.getReferenceById(followerId);
+        User followee = resolveFollowee(followeeUsername);
+
+        Optional<Follow> existing = followRepository.findByFollowerAndFollowee(follower, followee);
+        if (existing.isPresent()) {
+            followRepository.delete(existing.get());
+            adjustCounts(follower.getId(), followee.getId(), -1);
+            eventPublisher.publishEvent(new FollowChangedEvent(follower.getId(), followee.getId(), false));
+        }
+        return false;
+    }
+
+    /**
+     * Updates the counters through the locked entities so the second-level
+     * cache replaces just these two users; a bulk UPDATE would evict every
+     * cached user.
+     */
+    private void adjustCounts(Long followerId, Long followeeId, int delta) {
+        for (User user : userRepository.findAllForUpdate(List.of(followerId, followeeId))) {
+            if (user.getId().equals(followeeId)) {
+                user.setFollowerCount(user.getFollowerCount() + delta);
+            } else {
+                user.setFollowingCount(user.getFollowingCount() + delta);
+            }
+        }
+    }
+
+    private User resolveFollowee(String username) {
+        Long followeeId = userCache.getByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"))
+                .getId();
+        return userRepository.getReferenceById(followeeId);
+    }
+}
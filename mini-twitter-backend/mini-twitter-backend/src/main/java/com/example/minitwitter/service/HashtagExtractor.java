@@ -0,0 +1,46 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.entity.Hashtag;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Collects the normalised, de-duplicated hashtags of a new post from the
+ * {@code #tags} in its content and the explicitly supplied list.
+ */
+@Component
+public class HashtagExtractor {
+
+    private static final Pattern HASHTAG = Pattern.compile("#(\\w+)");
+
+    public Set<String> extract(String content, Collection<String> requested) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (requested != null) {
+            for (String tag : requested) {
+                add(tags, tag);
+            }
+        }
+        if (content != null && content.indexOf('#') >= 0) {
+            Matcher matcher = HASHTAG.matcher(content);
+            while (matcher.find()) {
+                add(tags, matcher.group(1));
+            }
+        }
+        return tags;
+    }
+
+    private static void add(Set<String> tags, String tag) {
+        if (tag == null) {
+            return;
+        }
+        String cleanTag = Hashtag.normalize(tag);
+        if (!cleanTag.isEmpty()) {
+            tags.add(cleanTag);
+        }
+    }
+}
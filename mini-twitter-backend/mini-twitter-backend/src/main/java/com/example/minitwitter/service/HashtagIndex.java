@@ -0,0 +1,103 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.dto.FeedCursor;
+import com.example.minitwitter.event.PostCreatedEvent;
+import com.example.minitwitter.event.PostsImportedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from hashtag to a time-ordered posting list of post ids.
+ * Rebuilt from {@code post_hashtags} at startup and kept current by
+ * {@link PostCreatedEvent}s, so tag pages never load the many-to-many
+ * collection or sort it in memory.
+ */
+@Component
+public class HashtagIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(HashtagIndex.class);
+
+    private static final String REBUILD_SQL =
+            "SELECT h.tag, p.id, p.created_at FROM post_hashtags ph " +
+            "JOIN hashtags h ON h.id = ph.hashtag_id " +
+            "JOIN posts p ON p.id = ph.post_id";
+
+    private final Map<String, PostingList> postings = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int[] rows = {0};
+        jdbcTemplate.query(REBUILD_SQL, rs -> {
+            LocalDateTime createdAt = rs.getObject(3, LocalDateTime.class);
+            add(rs.getString(1), FeedCursor.toEpochMicros(createdAt), rs.getLong(2));
+            rows[0]++;
+        });
+        ready = true;
+        log.info("Hashtag index rebuilt: {} tags, {} postings in {} ms",
+                postings.size(), rows[0], System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        long micros = FeedCursor.toEpochMicros(event.getCreatedAt());
+        for (String tag : event.getHashtags()) {
+            add(tag, micros, event.getPostId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onPostsImported(PostsImportedEvent event) {
+        Map<String, List<PostCreatedEvent>> byTag = new HashMap<>();
+        for (PostCreatedEvent post : event.getPosts()) {
+            for (String tag : post.getHashtags()) {
+                byTag.computeIfAbsent(tag, t -> new ArrayList<>()).add(post);
+            }
+        }
+        byTag.forEach((tag, posts) -> {
+            long[] micros = new long[posts.size()];
+            long[] ids = new long[posts.size()];
+            for (int i = 0; i < ids.length; i++) {
+                micros[i] = FeedCursor.toEpochMicros(posts.get(i).getCreatedAt());
+                ids[i] = posts.get(i).getPostId();
+            }
+            postings.computeIfAbsent(tag, t -> new PostingList()).addAll(micros, ids);
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean contains(String tag) {
+        return postings.containsKey(tag);
+    }
+
+    /** Post ids tagged with {@code tag} older than the given position, newest first. */
+    public List<Long> before(String tag, long createdAtMicros, long postId, int limit) {
+        PostingList list = postings.get(tag);
+        return list != null ? list.before(createdAtMicros, postId, limit) : List.of();
+    }
+
+    private void add(String tag, long createdAtMicros, long postId) {
+        postings.computeIfAbsent(tag, t -> new PostingList()).add(createdAtMicros, postId);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.minitwitter.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-capacity ring of (createdAt, postId) entries kept in feed order.
+ * Once full, pushing a newer post overwrites the oldest entry and the
+ * timeline is marked truncated so readers know older history lives only
+ * in the database.
+ */
+public class HomeTimeline {
+
+    private final long[] micros;
+    private final long[] ids;
+    private int head;
+    private int size;
+    private boolean truncated;
+    private volatile long lastReadAt = System.currentTimeMillis();
+
+    public HomeTimeline(int capacity) {
+        this.micros = new long[capacity];
+        this.ids = new long[capacity];
+    }
+
+    /** Appends an entry; entries arriving slightly out of order are slotted into place. */
+    public synchronized void push(long createdAtMicros, long postId) {
+        int capacity = ids.length;
+        if (size == capacity) {
+            if (compare(createdAtMicros, postId, micros[head], ids[head]) <= 0) {
+                return;
+            }
+            head = (head + 1) % capacity;
+            size--;
+            truncated = true;
+        }
+
+        int pos = size;
+        while (pos > 0) {
+            int prev = (head + pos - 1) % capacity;
+            int cmp = compare(micros[prev], ids[prev], createdAtMicros, postId);
+            if (cmp == 0) {
+                // Already present, e.g. delivered both by fan-out and a rebuild
+                shiftLeft(pos, size);
+                return;
+            }
+            if (cmp < 0) {
+                break;
+            }
+            int slot = (head + pos) % capacity;
+            micros[slot] = micros[prev];
+            ids[slot] = ids[prev];
+            pos--;
+        }
+        int slot = (head + pos) % capacity;
+        micros[slot] = createdAtMicros;
+        ids[slot] = postId;
+        size++;
+    }
+
+    /** Undoes the shifting performed so far when a duplicate is discovered. */
+    private void shiftLeft(int from, int to) {
+        int capacity = ids.length;
+        for (int i = from; i < to; i++) {
+            int dst = (head + i) % capacity;
+            int src = (head + i + 1) % capacity;
+            micros[dst] = micros[src];
+            ids[dst] = ids[src];
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} entries strictly older than the given
+     * position, newest first, as {@code {createdAtMicros, postId}} pairs.
+     */
+    public synchronized List<long[]> before(long createdAtMicros, long postId, int limit) {
+        lastReadAt = System.currentTimeMillis();
+        List<long[]> page = new ArrayList<>(Math.min(limit, size));
+        for (int i = size - 1; i >= 0 && page.size() < limit; i--) {
+            int slot = (head + i) % ids.length;
+            if (compare(micros[slot], ids[slot], createdAtMicros, postId) < 0) {
+                page.add(new long[]{micros[slot], ids[slot]});
+            }
+        }
+        return page;
+    }
+
+    public synchronized boolean isTruncated() {
+        return truncated;
+    }
+
+    public synchronized void markTruncated() {
+        truncated = true;
+    }
+
+    public long getLastReadAt() {
+        return lastReadAt;
+    }
+
+    static int compare(long microsA, long idA, long microsB, long idB) {
+        int cmp = Long.compare(microsA, microsB);
+        return cmp != 0 ? cmp : Long.compare(idA, idB);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.minitwitter.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out ids for rows written over plain JDBC into the tables whose
+ * entities use pooled sequences. Every sequence value reserves the
+ * {@link #BLOCK_SIZE} ids starting at it, which is how Hibernate's
+ * pooled-lo optimizer reads the same sequences, so ids allocated here and
+ * ids assigned on persist never collide. Enough blocks for a whole batch
+ * are fetched in one round trip and unused ids are kept for the next call.
+ */
+@Component
+public class IdAllocator {
+
+    public static final String POSTS = "posts_seq";
+    public static final String LIKES = "likes_seq";
+    public static final String COMMENTS = "comments_seq";
+
+    /** Must match the {@code allocationSize} of the entities' sequence generators. */
+    public static final int BLOCK_SIZE = 50;
+
+    private final Map<String, Block> spare = new HashMap<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public long[] allocate(String sequence, int count) {
+        long[] ids = new long[count];
+        int filled;
+        synchronized (this) {
+            filled = take(spare.get(sequence), ids, 0);
+        }
+        if (filled == count) {
+            return ids;
+        }
+
+        int blocks = (count - filled + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        List<Long> starts = jdbcTemplate.queryForList(
+                "SELECT NEXT VALUE FOR " + sequence + " FROM SYSTEM_RANGE(1, ?)", Long.class, blocks);
+        Block last = null;
+        for (Long start : starts) {
+            last = new Block(start);
+            filled = take(last, ids, filled);
+        }
+        if (last != null && last.next < last.end) {
+            synchronized (this) {
+                spare.put(sequence, last);
+            }
+        }
+        return ids;
+    }
+
+    public long next(String sequence) {
+        return allocate(sequence, 1)[0];
+    }
+
+    private static int take(Block block, long[] ids, int filled) {
+        while (block != null && block.next < block.end && filled < ids.length) {
+            ids[filled++] = block.next++;
+        }
+        return filled;
+    }
+
+    private static final class Block {
+        private long next;
+        private final long end;
+
+        private Block(long start) {
+            this.next = start;
+            this.end = start + BLOCK_SIZE;
+        }
+    }
+}
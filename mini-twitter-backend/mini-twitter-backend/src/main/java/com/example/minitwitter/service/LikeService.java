@@ -1,18 +1,21 @@
 package com.example.minitwitter.service;
 
-import com.example.minitwitter.entity.Like;
-import com.example.minitwitter.entity.Post;
-import com.example.minitwitter.entity.User;
+import com.example.minitwitter.event.LikeToggledEvent;
 import com.example.minitwitter.repository.LikeRepository;
 import com.example.minitwitter.repository.PostRepository;
-import com.example.minitwitter.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-
+/**
+ * Likes are staged in the {@link LikeWriteBuffer} rather than written here,
+ * so setting a like only reads. An event is published only when the state
+ * actually changes, which keeps counters right for repeated PUTs and DELETEs.
+ */
 @Service
+@Timed("minitwitter.service")
 @Transactional
 public class LikeService {
 
@@ -23,24 +26,34 @@ public class LikeService {
     private PostRepository postRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public boolean like(Long postId, Long userId) {
+        return setLiked(postId, userId, true);
+    }
 
-    public boolean toggleLike(Long postId, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public boolean unlike(Long postId, Long userId) {
+        return setLiked(postId, userId, false);
+    }
 
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+    public boolean toggleLike(Long postId, Long userId) {
+        return setLiked(postId, userId, null);
+    }
 
-        Optional<Like> existingLike = likeRepository.findByUserAndPost(user, post);
+    private boolean setLiked(Long postId, Long userId, Boolean liked) {
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
 
-        if (existingLike.isPresent()) {
-            likeRepository.delete(existingLike.get());
-            return false; // Unliked
-        } else {
-            Like like = new Like(user, post);
-            likeRepository.save(like);
-            return true; // Liked
+        boolean before = likeWriteBuffer.update(userId, postId, liked,
+                () -> likeRepository.existsByUserIdAndPostId(userId, postId));
+        boolean after = liked != null ? liked : !before;
+        if (after != before) {
+            eventPublisher.publishEvent(new LikeToggledEvent(postId, userId, after));
         }
+        return after;
     }
-}
\ No newline at end of file
+}
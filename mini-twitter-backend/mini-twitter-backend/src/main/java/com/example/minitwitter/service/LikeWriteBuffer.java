@@ -0,0 +1,270 @@
+package com.example.minitwitter.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind buffer for like rows. Each (user, post) pair keeps only its
+ * latest desired state, so repeated taps coalesce and a like undone before
+ * the flush never reaches the database. Changed pairs are written as one
+ * JDBC batch of idempotent inserts and deletes; the request thread never
+ * takes a row lock. Buffered state is the source of truth for the pair
+ * until the batch has committed.
+ */
+@Component
+public class LikeWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeWriteBuffer.class);
+
+    private static final int STRIPES = 16;
+
+    // Inserts nothing for a pair that already has a row; the allocated id is then simply unused
+    static final String INSERT_SQL =
+            "MERGE INTO likes l USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), " +
+            "CAST(? AS TIMESTAMP))) s(id, user_id, post_id, created_at) " +
+            "ON l.user_id = s.user_id AND l.post_id = s.post_id " +
+            "WHEN NOT MATCHED THEN INSERT (id, user_id, post_id, created_at) " +
+            "VALUES (s.id, s.user_id, s.post_id, s.created_at)";
+
+    private static final String DELETE_SQL = "DELETE FROM likes WHERE user_id = ? AND post_id = ?";
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdAllocator idAllocator;
+
+    public LikeWriteBuffer() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Sets the like state for the pair, or flips it when {@code liked} is
+     * null, and returns the state it had before. {@code stored} reads the
+     * database and is only consulted when nothing is buffered for the pair.
+     */
+    public boolean update(Long userId, Long postId, Boolean liked, BooleanSupplier stored) {
+        Key key = new Key(userId, postId);
+        Stripe stripe = stripeFor(key);
+        while (true) {
+            Boolean buffered;
+            long generation;
+            synchronized (stripe) {
+                buffered = stripe.current(key);
+                generation = stripe.generation;
+            }
+            boolean persisted = buffered != null ? buffered : stored.getAsBoolean();
+
+            synchronized (stripe) {
+                Boolean current = stripe.current(key);
+                if (current == null && stripe.generation != generation) {
+                    // A flush retired this pair while we read the database; read again
+                    continue;
+                }
+                boolean before = current != null ? current : persisted;
+                Entry entry = stripe.pending.computeIfAbsent(key, k -> new Entry(before));
+                entry.liked = liked != null ? liked : !before;
+                return before;
+            }
+        }
+    }
+
+    /** Applies buffered likes and unlikes by {@code userId} to {@code likedIds}. */
+    public void overlay(Long userId, Collection<Long> postIds, Set<Long> likedIds) {
+        for (Long postId : postIds) {
+            Key key = new Key(userId, postId);
+            Stripe stripe = stripeFor(key);
+            Boolean current;
+            synchronized (stripe) {
+                current = stripe.current(key);
+            }
+            if (current == null) {
+                continue;
+            }
+            if (current) {
+                likedIds.add(postId);
+            } else {
+                likedIds.remove(postId);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${minitwitter.likes.flush-interval-ms:200}")
+    public synchronized void flush() {
+        Map<Key, Entry> drained = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (stripe.pending.isEmpty()) {
+                    continue;
+                }
+                drained.putAll(stripe.pending);
+                stripe.inFlight = stripe.pending;
+                stripe.pending = new HashMap<>();
+            }
+        }
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Map.Entry<Key, Entry> entry : drained.entrySet()) {
+            Key key = entry.getKey();
+            Entry state = entry.getValue();
+            if (state.liked == state.persisted) {
+                continue;
+            }
+            if (state.liked) {
+                inserts.add(new Object[]{null, key.userId, key.postId, now});
+            } else {
+                deletes.add(new Object[]{key.userId, key.postId});
+            }
+        }
+
+        try {
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+            }
+            if (!inserts.isEmpty()) {
+                long[] ids = idAllocator.allocate(IdAllocator.LIKES, inserts.size());
+                for (int i = 0; i < ids.length; i++) {
+                    inserts.get(i)[0] = ids[i];
+                }
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            }
+            retireInFlight();
+        } catch (RuntimeException e) {
+            log.warn("Like flush of {} rows failed, re-queueing: {}", inserts.size() + deletes.size(), e.getMessage());
+            requeue(drained);
+        }
+    }
+
+    /**
+     * Flushes, then runs {@code task} with further flushes held off, so the
+     * like rows stay as the task reads them; likes made meanwhile wait in
+     * the buffer and show up in {@link #unwrittenLikes}.
+     */
+    public synchronized <T> T flushAndHold(Supplier<T> task) {
+        flush();
+        return task.get();
+    }
+
+    /** Net likes buffered for {@code postId} that are not yet written as rows. */
+    public int unwrittenLikes(Long postId) {
+        int net = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (Map.Entry<Key, Entry> entry : stripe.pending.entrySet()) {
+                    Entry state = entry.getValue();
+                    if (entry.getKey().postId == postId && state.liked != state.persisted) {
+                        net += state.liked ? 1 : -1;
+                    }
+                }
+            }
+        }
+        return net;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void retireInFlight() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (!stripe.inFlight.isEmpty()) {
+                    stripe.inFlight = Collections.emptyMap();
+                    stripe.generation++;
+                }
+            }
+        }
+    }
+
+    private void requeue(Map<Key, Entry> drained) {
+        for (Map.Entry<Key, Entry> entry : drained.entrySet()) {
+            Stripe stripe = stripeFor(entry.getKey());
+            synchronized (stripe) {
+                Entry newer = stripe.pending.get(entry.getKey());
+                if (newer != null) {
+                    // The database still holds what the failed batch started from
+                    newer.persisted = entry.getValue().persisted;
+                } else {
+                    stripe.pending.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        retireInFlight();
+    }
+
+    private Stripe stripeFor(Key key) {
+        return stripes[key.hashCode() & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+        private Map<Key, Entry> pending = new HashMap<>();
+        private Map<Key, Entry> inFlight = Collections.emptyMap();
+        private long generation;
+
+        private Boolean current(Key key) {
+            Entry entry = pending.get(key);
+            if (entry == null) {
+                entry = inFlight.get(key);
+            }
+            return entry != null ? entry.liked : null;
+        }
+    }
+
+    private static final class Entry {
+        // State the database will hold once earlier batches have committed
+        private boolean persisted;
+        private boolean liked;
+
+        private Entry(boolean persisted) {
+            this.persisted = persisted;
+            this.liked = persisted;
+        }
+    }
+
+    private static final class Key {
+        private final long userId;
+        private final long postId;
+
+        private Key(long userId, long postId) {
+            this.userId = userId;
+            this.postId = postId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return userId == other.userId && postId == other.postId;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(userId) + Long.hashCode(postId);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.minitwitter.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed-window attempt limits checked before any password is hashed.
+ * Client addresses are charged for every failed login and every
+ * registration; usernames are charged for failed logins only and are
+ * cleared by a successful one. Expired windows are purged periodically so
+ * the maps stay bounded by recent traffic.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Map<String, Window> byAddress = new ConcurrentHashMap<>();
+    private final Map<String, Window> byUsername = new ConcurrentHashMap<>();
+    private final long windowMillis;
+    private final int maxPerAddress;
+    private final int maxPerUsername;
+    private final Counter addressRejected;
+    private final Counter usernameRejected;
+
+    public LoginThrottle(@Value("${minitwitter.auth.attempt-window-seconds:300}") long windowSeconds,
+                         @Value("${minitwitter.auth.max-attempts-per-address:100}") int maxPerAddress,
+                         @Value("${minitwitter.auth.max-failures-per-username:5}") int maxPerUsername,
+                         MeterRegistry meterRegistry) {
+        this.windowMillis = windowSeconds * 1000;
+        this.maxPerAddress = maxPerAddress;
+        this.maxPerUsername = maxPerUsername;
+        this.addressRejected = meterRegistry.counter("minitwitter.auth.rejected", "reason", "address");
+        this.usernameRejected = meterRegistry.counter("minitwitter.auth.rejected", "reason", "username");
+    }
+
+    public void checkAddress(String address) {
+        check(byAddress, address, maxPerAddress, addressRejected);
+    }
+
+    public void checkUsername(String username) {
+        check(byUsername, username, maxPerUsername, usernameRejected);
+    }
+
+    public void recordAddressAttempt(String address) {
+        record(byAddress, address);
+    }
+
+    public void recordFailure(String address, String username) {
+        record(byAddress, address);
+        record(byUsername, username);
+    }
+
+    public void recordSuccess(String username) {
+        byUsername.remove(username);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        byAddress.values().removeIf(window -> window.isExpired(now, windowMillis));
+        byUsername.values().removeIf(window -> window.isExpired(now, windowMillis));
+    }
+
+    private void check(Map<String, Window> windows, String key, int limit, Counter rejected) {
+        Window window = key != null ? windows.get(key) : null;
+        if (window == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long retryAfterMillis = window.retryAfter(now, windowMillis, limit);
+        if (retryAfterMillis > 0) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many attempts, try again later",
+                    (retryAfterMillis + 999) / 1000);
+        }
+    }
+
+    private void record(Map<String, Window> windows, String key) {
+        if (key != null) {
+            windows.computeIfAbsent(key, k -> new Window()).increment(System.currentTimeMillis(), windowMillis);
+        }
+    }
+
+    private static class Window {
+        private long start;
+        private int count;
+
+        synchronized void increment(long now, long length) {
+            if (now - start >= length) {
+                start = now;
+                count = 0;
+            }
+            count++;
+        }
+
+        synchronized long retryAfter(long now, long length, int limit) {
+            if (now - start >= length || count < limit) {
+                return 0;
+            }
+            return start + length - now;
+        }
+
+        synchronized boolean isExpired(long now, long length) {
+            return now - start >= length;
+        }
+    }
+}
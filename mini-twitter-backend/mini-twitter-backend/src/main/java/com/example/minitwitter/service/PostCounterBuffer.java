@@ -0,0 +1,247 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.event.CommentCreatedEvent;
+import com.example.minitwitter.event.LikeToggledEvent;
+import com.example.minitwitter.event.PostsImportedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write-behind accumulator for the denormalized {@code posts.like_count},
+ * {@code posts.comment_count} and {@code comments.reply_count} columns.
+ * Deltas are collected in lock-striped maps after the originating
+ * transaction commits and flushed to the database as JDBC batches in one
+ * transaction, so hot posts and threads never serialise writers on a row
+ * lock.
+ * The increments are not idempotent, so a batch commits or rolls back as a
+ * whole before a failed one is re-queued.
+ */
+@Component
+public class PostCounterBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(PostCounterBuffer.class);
+
+    private static final int STRIPES = 16;
+
+    private static final String FLUSH_SQL =
+            "UPDATE posts SET like_count = like_count + ?, comment_count = comment_count + ? WHERE id = ?";
+
+    private static final String FLUSH_REPLIES_SQL = "UPDATE comments SET reply_count = reply_count + ? WHERE id = ?";
+
+    private static final String RECOUNT_SQL =
+            "SELECT like_count, comment_count, " +
+            "(SELECT COUNT(*) FROM likes l WHERE l.post_id = p.id), " +
+            "(SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id) " +
+            "FROM posts p WHERE p.id = ?";
+
+    private static final String SET_SQL = "UPDATE posts SET like_count = ?, comment_count = ? WHERE id = ?";
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    public PostCounterBuffer() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener
+    public void onLikeToggled(LikeToggledEvent event) {
+        record(event.getPostId(), event.isLiked() ? 1 : -1, 0);
+    }
+
+    @TransactionalEventListener
+    public void onCommentCreated(CommentCreatedEvent event) {
+        record(event.getPostId(), 0, 1);
+        if (event.getParentId() != null) {
+            recordReplies(event.getParentId(), 1);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onPostsImported(PostsImportedEvent event) {
+        event.getLikesAdded().forEach((postId, likes) -> record(postId, likes, 0));
+        event.getCommentsAdded().forEach((postId, comments) -> record(postId, 0, comments));
+    }
+
+    public void record(Long postId, long likeDelta, long commentDelta) {
+        Stripe stripe = stripeFor(postId);
+        synchronized (stripe) {
+            long[] delta = stripe.pending.computeIfAbsent(postId, id -> new long[2]);
+            delta[0] += likeDelta;
+            delta[1] += commentDelta;
+        }
+    }
+
+    public void recordReplies(Long commentId, long replyDelta) {
+        Stripe stripe = stripeFor(commentId);
+        synchronized (stripe) {
+            stripe.pendingReplies.merge(commentId, replyDelta, Long::sum);
+        }
+    }
+
+    public int pendingReplies(Long commentId) {
+        Stripe stripe = stripeFor(commentId);
+        synchronized (stripe) {
+            return (int) (stripe.pendingReplies.getOrDefault(commentId, 0L)
+                    + stripe.inFlightReplies.getOrDefault(commentId, 0L));
+        }
+    }
+
+    public int pendingLikes(Long postId) {
+        return (int) pending(postId, 0);
+    }
+
+    public int pendingComments(Long postId) {
+        return (int) pending(postId, 1);
+    }
+
+    private long pending(Long postId, int slot) {
+        Stripe stripe = stripeFor(postId);
+        synchronized (stripe) {
+            long[] delta = stripe.pending.get(postId);
+            long[] flushing = stripe.inFlight.get(postId);
+            return (delta != null ? delta[slot] : 0) + (flushing != null ? flushing[slot] : 0);
+        }
+    }
+
+    /**
+     * Sets the stored counters of a post from its like and comment rows less
+     * the deltas still pending for it, so that stored plus pending adds up to
+     * the rows instead of counting the pending ones twice. {@code
+     * unwrittenLikes} is the net of likes buffered but not yet written as
+     * rows, whose deltas are pending all the same. Holds off flushes and the
+     * post's stripe, so no delta moves while it reads. Returns whether the
+     * stored counters changed.
+     */
+    public synchronized boolean recount(Long postId, int unwrittenLikes) {
+        Stripe stripe = stripeFor(postId);
+        synchronized (stripe) {
+            List<long[]> rows = jdbcTemplate.query(RECOUNT_SQL, (rs, rowNum) ->
+                    new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)}, postId);
+            if (rows.isEmpty()) {
+                return false;
+            }
+            long[] row = rows.get(0);
+            long[] delta = stripe.pending.getOrDefault(postId, new long[2]);
+            long likes = row[2] + unwrittenLikes - delta[0];
+            long comments = row[3] - delta[1];
+            if (likes == row[0] && comments == row[1]) {
+                return false;
+            }
+            jdbcTemplate.update(SET_SQL, likes, comments, postId);
+            return true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${minitwitter.counters.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        List<Object[]> replyBatch = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            Map<Long, long[]> drained;
+            Map<Long, Long> drainedReplies;
+            synchronized (stripe) {
+                if (stripe.pending.isEmpty() && stripe.pendingReplies.isEmpty()) {
+                    continue;
+                }
+                // Deltas stay readable as in-flight until the batch has committed
+                drained = stripe.pending;
+                stripe.inFlight = drained;
+                stripe.pending = new HashMap<>();
+                drainedReplies = stripe.pendingReplies;
+                stripe.inFlightReplies = drainedReplies;
+                stripe.pendingReplies = new HashMap<>();
+            }
+            for (Map.Entry<Long, long[]> entry : drained.entrySet()) {
+                long[] delta = entry.getValue();
+                if (delta[0] != 0 || delta[1] != 0) {
+                    batch.add(new Object[]{delta[0], delta[1], entry.getKey()});
+                }
+            }
+            for (Map.Entry<Long, Long> entry : drainedReplies.entrySet()) {
+                if (entry.getValue() != 0) {
+                    replyBatch.add(new Object[]{entry.getValue(), entry.getKey()});
+                }
+            }
+        }
+        if (batch.isEmpty() && replyBatch.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!batch.isEmpty()) {
+                    jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+                }
+                if (!replyBatch.isEmpty()) {
+                    jdbcTemplate.batchUpdate(FLUSH_REPLIES_SQL, replyBatch);
+                }
+            });
+            clearInFlight();
+        } catch (RuntimeException e) {
+            log.warn("Counter flush of {} posts and {} comments failed, re-queueing: {}",
+                    batch.size(), replyBatch.size(), e.getMessage());
+            clearInFlight();
+            for (Object[] row : batch) {
+                record((Long) row[2], (Long) row[0], (Long) row[1]);
+            }
+            for (Object[] row : replyBatch) {
+                recordReplies((Long) row[1], (Long) row[0]);
+            }
+        }
+    }
+
+    private void clearInFlight() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.inFlight = Collections.emptyMap();
+                stripe.inFlightReplies = Collections.emptyMap();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private Stripe stripeFor(Long postId) {
+        return stripes[(int) (postId ^ (postId >>> 32)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+        private Map<Long, long[]> pending = new HashMap<>();
+        private Map<Long, long[]> inFlight = Collections.emptyMap();
+        // Keyed by comment id
+        private Map<Long, Long> pendingReplies = new HashMap<>();
+        private Map<Long, Long> inFlightReplies = Collections.emptyMap();
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.dto.PostResponse;
+import com.example.minitwitter.event.UserProfileChangedEvent;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Byte-bounded LRU of pre-serialized {@link PostResponse} JSON, keyed by
+ * post id. Only the immutable fields are cached; counts and the viewer's
+ * liked flag are spliced in between the two halves when a page is written.
+ * Posts cannot be edited or deleted, so a fragment only goes stale through
+ * the author's display name: a profile change drops every fragment by that
+ * author.
+ */
+@Component
+public class PostFragmentCache {
+
+    // Map entry, boxed key and both array headers, roughly
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final Map<Long, Fragment> fragments = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long evictions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${minitwitter.fragment-cache.max-bytes:16777216}")
+    private long maxBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public PostFragmentCache(MeterRegistry meterRegistry) {
+        this.hits = meterRegistry.counter("minitwitter.fragment.cache", "result", "hit");
+        this.misses = meterRegistry.counter("minitwitter.fragment.cache", "result", "miss");
+        Gauge.builder("minitwitter.fragment.cache.size", this, PostFragmentCache::size)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /** Returns a fragment for each post, serializing and caching the ones not held yet. */
+    public Fragment[] getAll(List<PostResponse> posts) {
+        Fragment[] result = new Fragment[posts.size()];
+        long generation;
+        int missing = 0;
+        synchronized (this) {
+            generation = evictions;
+            for (int i = 0; i < result.length; i++) {
+                result[i] = fragments.get(posts.get(i).getId());
+                if (result[i] == null) {
+                    missing++;
+                }
+            }
+        }
+        hits.increment(result.length - missing);
+        if (missing == 0) {
+            return result;
+        }
+
+        misses.increment(missing);
+        for (int i = 0; i < result.length; i++) {
+            if (result[i] == null) {
+                result[i] = serialize(posts.get(i));
+            }
+        }
+        synchronized (this) {
+            // An eviction while we serialized may have made these stale; use them once but do not keep them
+            if (evictions == generation) {
+                for (int i = 0; i < result.length; i++) {
+                    put(posts.get(i).getId(), result[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        synchronized (this) {
+            Iterator<Fragment> iterator = fragments.values().iterator();
+            while (iterator.hasNext()) {
+                Fragment fragment = iterator.next();
+                if (fragment.username.equals(event.getUsername())) {
+                    bytes -= fragment.weight();
+                    iterator.remove();
+                }
+            }
+            evictions++;
+        }
+    }
+
+    private synchronized long size() {
+        return bytes;
+    }
+
+    private void put(Long postId, Fragment fragment) {
+        Fragment previous = fragments.put(postId, fragment);
+        if (previous != null) {
+            bytes -= previous.weight();
+        }
+        bytes += fragment.weight();
+        Iterator<Fragment> eldest = fragments.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().weight();
+            eldest.remove();
+        }
+    }
+
+    private Fragment serialize(PostResponse post) {
+        try {
+            ByteArrayOutputStream head = new ByteArrayOutputStream(256);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(head)) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", post.getId());
+                generator.writeStringField("content", post.getContent());
+                generator.writeStringField("username", post.getUsername());
+                generator.writeStringField("fullName", post.getFullName());
+                generator.writeObjectField("createdAt", post.getCreatedAt());
+                generator.writeEndObject();
+            }
+            ByteArrayOutputStream tail = new ByteArrayOutputStream(64);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(tail)) {
+                generator.writeStartObject();
+                generator.writeObjectField("hashtags", post.getHashtags());
+                generator.writeEndObject();
+            }
+            // Drop the closing brace of the head and the opening brace of the tail
+            byte[] headBytes = head.toByteArray();
+            byte[] tailBytes = tail.toByteArray();
+            return new Fragment(Arrays.copyOf(headBytes, headBytes.length - 1),
+                    Arrays.copyOfRange(tailBytes, 1, tailBytes.length), post.getUsername());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@code head} is the object up to and including {@code createdAt};
+     * {@code tail} is {@code "hashtags":[...]} and the closing brace.
+     */
+    public static final class Fragment {
+        private final byte[] head;
+        private final byte[] tail;
+        private final String username;
+
+        private Fragment(byte[] head, byte[] tail, String username) {
+            this.head = head;
+            this.tail = tail;
+            this.username = username;
+        }
+
+        public byte[] getHead() { return head; }
+        public byte[] getTail() { return tail; }
+
+        private long weight() {
+            return head.length + tail.length + ENTRY_OVERHEAD;
+        }
+    }
+}
@@ -1,25 +1,47 @@
 package com.example.minitwitter.service;
 
+import com.example.minitwitter.dto.FeedCursor;
+import com.example.minitwitter.dto.FeedPage;
 import com.example.minitwitter.dto.PostRequest;
 import com.example.minitwitter.dto.PostResponse;
+import com.example.minitwitter.dto.UserPrincipal;
 import com.example.minitwitter.entity.Hashtag;
 import com.example.minitwitter.entity.Post;
-import com.example.minitwitter.entity.User;
+import com.example.minitwitter.event.PostCreatedEvent;
 import com.example.minitwitter.repository.HashtagRepository;
-import com.example.minitwitter.repository.LikeRepository;
 import com.example.minitwitter.repository.PostRepository;
 import com.example.minitwitter.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("minitwitter.service")
 @Transactional
 public class PostService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final int MAX_HASHTAG_ATTEMPTS = 3;
+
+    static final String INSERT_HASHTAG_SQL =
+            "MERGE INTO hashtags h USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS TIMESTAMP))) s(tag, created_at) " +
+            "ON h.tag = s.tag WHEN NOT MATCHED THEN INSERT (tag, created_at) VALUES (s.tag, s.created_at)";
+
     @Autowired
     private PostRepository postRepository;
 
@@ -27,68 +49,169 @@ public class PostService {
     private UserRepository userRepository;
 
     @Autowired
-    private LikeRepository likeRepository;
+    private UserCache userCache;
+
+    @Autowired
+    private FeedHydrator feedHydrator;
 
     @Autowired
     private HashtagRepository hashtagRepository;
 
-    public Post createPost(PostRequest request, String username) {
-        User user = userRepository.findByUsername(username)
+    @Autowired
+    private HashtagExtractor hashtagExtractor;
+
+    @Autowired
+    private HashtagIndex hashtagIndex;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public PostResponse createPost(PostRequest request, Long userId) {
+        UserPrincipal author = userCache.get(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Post post = new Post(request.getContent(), user);
-
-        // Process hashtags
-        if (request.getHashtags() != null && !request.getHashtags().isEmpty()) {
-            System.out.println("Processing " + request.getHashtags().size() + " hashtags");
-            for (String tagName : request.getHashtags()) {
-                String cleanTag = tagName.toLowerCase().replaceAll("[^a-z0-9]", "");
-                System.out.println("Clean tag: " + cleanTag);
-                if (!cleanTag.isEmpty()) {
-                    Hashtag hashtag = hashtagRepository.findByTag(cleanTag)
-                            .orElseGet(() -> {
-                                Hashtag newHashtag = new Hashtag(cleanTag);
-                                Hashtag saved = hashtagRepository.save(newHashtag);
-                                System.out.println("Created new hashtag: " + saved.getTag());
-                                return saved;
-                            });
-                    post.addHashtag(hashtag);
-                    System.out.println("Added hashtag to post: " + hashtag.getTag());
-                }
-            }
+        Post post = new Post(request.getContent(), userRepository.getReferenceById(author.getId()));
+        for (Hashtag hashtag : resolveHashtags(hashtagExtractor.extract(request.getContent(), request.getHashtags()))) {
+            post.addHashtag(hashtag);
         }
 
-        Post savedPost = postRepository.save(post);
-        System.out.println("Saved post with " + savedPost.getHashtags().size() + " hashtags");
-        return savedPost;
+        // Pooled sequence ids defer the INSERT to commit; flush now so createdAt is stamped for the event
+        Post savedPost = postRepository.saveAndFlush(post);
+        eventPublisher.publishEvent(new PostCreatedEvent(savedPost.getId(), author.getId(),
+                savedPost.getContent(), savedPost.getCreatedAt(),
+                savedPost.getHashtags().stream().map(Hashtag::getTag).collect(Collectors.toList())));
+        return new PostResponse(savedPost, author);
     }
 
-    public List<PostResponse> getAllPosts(String currentUsername) {
-        List<Post> posts = postRepository.findByOrderByCreatedAtDesc();
-        User currentUser = userRepository.findByUsername(currentUsername).orElse(null);
-
-        return posts.stream()
-                .map(post -> {
-                    boolean liked = currentUser != null &&
-                            likeRepository.existsByUserAndPost(currentUser, post);
-                    return new PostResponse(post, liked);
-                })
-                .collect(Collectors.toList());
+    /** The newest {@link #MAX_PAGE_SIZE} posts; older ones are only reachable through {@link #getFeedPage}. */
+    @Transactional(readOnly = true)
+    public List<PostResponse> getAllPosts(Long currentUserId) {
+        return getFeedPage(null, MAX_PAGE_SIZE, currentUserId).getPosts();
     }
 
-    public List<PostResponse> getPostsByHashtag(String tag, String currentUsername) {
-        Hashtag hashtag = hashtagRepository.findByTag(tag.toLowerCase())
+    @Transactional(readOnly = true)
+    public FeedPage getFeedPage(String cursor, int limit, Long currentUserId) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+
+        List<Long> postIds;
+        if (cursor == null || cursor.isEmpty()) {
+            postIds = postRepository.findFeedFirstPage(window);
+        } else {
+            FeedCursor position = FeedCursor.decode(cursor);
+            postIds = postRepository.findFeedPageBefore(position.getCreatedAt(), position.getId(), window);
+        }
+
+        return feedHydrator.hydratePage(postIds, pageSize, currentUserId);
+    }
+
+    /** The newest {@link #MAX_PAGE_SIZE} posts under the tag; {@link #getHashtagPage} reaches older ones. */
+    @Transactional(readOnly = true)
+    public List<PostResponse> getPostsByHashtag(String tag, Long currentUserId) {
+        String cleanTag = tag.toLowerCase();
+        if (hashtagIndex.isReady()) {
+            return getHashtagPage(cleanTag, null, MAX_PAGE_SIZE, currentUserId).getPosts();
+        }
+        Hashtag hashtag = hashtagRepository.findByTag(cleanTag)
                 .orElseThrow(() -> new RuntimeException("Hashtag not found"));
+        List<Long> postIds = postRepository.findIdsByHashtagNewestFirst(hashtag.getTag(),
+                PageRequest.of(0, MAX_PAGE_SIZE));
+        return feedHydrator.hydrate(postIds, currentUserId);
+    }
 
-        User currentUser = userRepository.findByUsername(currentUsername).orElse(null);
+    @Transactional(readOnly = true)
+    public FeedPage getHashtagPage(String tag, String cursor, int limit, Long currentUserId) {
+        String cleanTag = tag.toLowerCase();
+        if (!hashtagIndex.isReady()) {
+            throw new RuntimeException("Hashtag index is still loading");
+        }
+        if (!hashtagIndex.contains(cleanTag)) {
+            throw new RuntimeException("Hashtag not found");
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        FeedCursor position = cursor == null || cursor.isEmpty() ? null : FeedCursor.decode(cursor);
+        List<Long> postIds = hashtagIndex.before(cleanTag,
+                position != null ? position.getCreatedAtMicros() : Long.MAX_VALUE,
+                position != null ? position.getId() : Long.MAX_VALUE,
+                pageSize + 1);
+
+        return feedHydrator.hydratePage(postIds, pageSize, currentUserId);
+    }
+
+    @Transactional(readOnly = true)
+    public FeedPage searchPosts(String query, String cursor, int limit, Long currentUserId) {
+        if (query == null || query.isBlank()) {
+            throw new RuntimeException("Query is empty");
+        }
+        if (!searchIndex.isReady()) {
+            throw new RuntimeException("Search index is still loading");
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        FeedCursor position = cursor == null || cursor.isEmpty() ? null : FeedCursor.decode(cursor);
+        SearchIndex.Result result = searchIndex.search(query,
+                position != null ? position.getCreatedAtMicros() : Long.MAX_VALUE,
+                position != null ? position.getId() : Long.MAX_VALUE,
+                pageSize + 1);
+
+        if (result.getResumeAt() == null) {
+            return feedHydrator.hydratePage(result.getPostIds(), pageSize, currentUserId);
+        }
+        // The scan budget ran out first: hand back what was found and continue from where it stopped
+        return new FeedPage(feedHydrator.hydrate(result.getPostIds(), currentUserId), result.getResumeAt().encode());
+    }
 
-        return hashtag.getPosts().stream()
-                .sorted((p1, p2) -> p2.getCreatedAt().compareTo(p1.getCreatedAt()))
-                .map(post -> {
-                    boolean liked = currentUser != null &&
-                            likeRepository.existsByUserAndPost(currentUser, post);
-                    return new PostResponse(post, liked);
-                })
-                .collect(Collectors.toList());
+    /**
+     * Loads the given tags in one query, inserting any that are missing in a
+     * single batch. A concurrent post may insert the same tag first; the
+     * MERGE skips rows that are already committed, and a duplicate-key race
+     * on an in-flight row is retried against the winner's row.
+     */
+    private List<Hashtag> resolveHashtags(Set<String> tags) {
+        if (tags.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Hashtag> resolved = new HashMap<>();
+        for (int attempt = 1; ; attempt++) {
+            List<String> missing = new ArrayList<>();
+            for (String tag : tags) {
+                if (!resolved.containsKey(tag)) {
+                    missing.add(tag);
+                }
+            }
+            for (Hashtag hashtag : hashtagRepository.findByTagIn(missing)) {
+                resolved.put(hashtag.getTag(), hashtag);
+                missing.remove(hashtag.getTag());
+            }
+            if (missing.isEmpty()) {
+                break;
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            try {
+                jdbcTemplate.batchUpdate(INSERT_HASHTAG_SQL, missing, missing.size(), (ps, tag) -> {
+                    ps.setString(1, tag);
+                    ps.setTimestamp(2, now);
+                });
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_HASHTAG_ATTEMPTS) {
+                    throw new RuntimeException("Could not save hashtags");
+                }
+            }
+        }
+
+        List<Hashtag> hashtags = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            hashtags.add(resolved.get(tag));
+        }
+        return hashtags;
     }
 }
\ No newline at end of file
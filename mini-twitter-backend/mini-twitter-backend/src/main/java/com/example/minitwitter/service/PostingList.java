@@ -0,0 +1,137 @@
+package com.example.minitwitter.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-mostly list of post ids kept sorted by (createdAt, id). Reads are
+ * binary-search slices, so a page costs O(log n + page size) no matter how
+ * many posts the list holds.
+ */
+public class PostingList {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] micros = new long[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    public void add(long createdAtMicros, long postId) {
+        lock.writeLock().lock();
+        try {
+            int pos = insertionPoint(createdAtMicros, postId);
+            if (pos < size && micros[pos] == createdAtMicros && ids[pos] == postId) {
+                return;
+            }
+            if (size == ids.length) {
+                micros = Arrays.copyOf(micros, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            if (pos < size) {
+                System.arraycopy(micros, pos, micros, pos + 1, size - pos);
+                System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            }
+            micros[pos] = createdAtMicros;
+            ids[pos] = postId;
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a batch in one merge pass. Imported posts usually land among or
+     * before those already indexed, where one {@link #add} each would shift
+     * the whole tail every time.
+     */
+    public void addAll(long[] batchMicros, long[] batchIds) {
+        Integer[] order = new Integer[batchIds.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> compare(batchMicros[a], batchIds[a], batchMicros[b], batchIds[b]));
+
+        lock.writeLock().lock();
+        try {
+            long[] mergedMicros = new long[Math.max(ids.length, size + order.length)];
+            long[] mergedIds = new long[mergedMicros.length];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < size || j < order.length) {
+                int cmp = j == order.length ? -1 : i == size ? 1
+                        : compare(micros[i], ids[i], batchMicros[order[j]], batchIds[order[j]]);
+                if (cmp <= 0) {
+                    mergedMicros[n] = micros[i];
+                    mergedIds[n++] = ids[i++];
+                    if (cmp == 0) {
+                        j++;
+                    }
+                } else {
+                    int k = order[j++];
+                    if (n == 0 || mergedIds[n - 1] != batchIds[k] || mergedMicros[n - 1] != batchMicros[k]) {
+                        mergedMicros[n] = batchMicros[k];
+                        mergedIds[n++] = batchIds[k];
+                    }
+                }
+            }
+            micros = mergedMicros;
+            ids = mergedIds;
+            size = n;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Up to {@code limit} post ids strictly older than the given position, newest first. */
+    public List<Long> before(long createdAtMicros, long postId, int limit) {
+        lock.readLock().lock();
+        try {
+            int end = insertionPoint(createdAtMicros, postId);
+            List<Long> page = new ArrayList<>(Math.min(limit, end));
+            for (int i = end - 1; i >= 0 && page.size() < limit; i--) {
+                page.add(ids[i]);
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** First index whose entry is not less than the given key. */
+    private int insertionPoint(long createdAtMicros, long postId) {
+        // Fast path: new posts almost always sort after everything already indexed
+        if (size == 0 || compare(micros[size - 1], ids[size - 1], createdAtMicros, postId) < 0) {
+            return size;
+        }
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(micros[mid], ids[mid], createdAtMicros, postId) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(long microsA, long idA, long microsB, long idB) {
+        int cmp = Long.compare(microsA, microsB);
+        return cmp != 0 ? cmp : Long.compare(idA, idB);
+    }
+}
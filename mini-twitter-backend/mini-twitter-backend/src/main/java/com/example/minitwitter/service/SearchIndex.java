@@ -0,0 +1,356 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.dto.FeedCursor;
+import com.example.minitwitter.event.PostCreatedEvent;
+import com.example.minitwitter.event.PostsImportedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process full-text index over post content. Each term maps to a
+ * recency-ordered {@link PostingList}; queries walk the rarest term's list
+ * newest first and verify the remaining terms and phrases against the
+ * post's stored token sequence.
+ *
+ * <p>When {@code minitwitter.search.snapshot-path} is set the index is
+ * periodically written to disk and reloaded on startup, after which only
+ * posts newer than the snapshot are read back from the database.
+ */
+@Component
+public class SearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndex.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x4d545358;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int SCAN_CHUNK = 256;
+    // Ids are not strictly commit-ordered, so catch-up re-reads a margin below the watermark
+    private static final long CATCH_UP_OVERLAP = 10_000;
+
+    private static final Pattern PHRASE = Pattern.compile("\"([^\"]*)\"");
+
+    private static final String CATCH_UP_SQL =
+            "SELECT id, created_at, content FROM posts WHERE id > ? ORDER BY id";
+
+    private final Map<String, PostingList> postings = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedPost> posts = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${minitwitter.search.snapshot-path:}")
+    private String snapshotPath;
+
+    @Value("${minitwitter.search.max-candidates:20000}")
+    private int maxCandidates;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        Long maxPostId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM posts", Long.class);
+        long watermark = restoreSnapshot(maxPostId != null ? maxPostId : 0);
+
+        int[] rows = {0};
+        jdbcTemplate.query(CATCH_UP_SQL, rs -> {
+            LocalDateTime createdAt = rs.getObject(2, LocalDateTime.class);
+            add(rs.getLong(1), FeedCursor.toEpochMicros(createdAt), rs.getString(3));
+            rows[0]++;
+        }, Math.max(0, watermark - CATCH_UP_OVERLAP));
+
+        ready = true;
+        log.info("Search index ready: {} posts, {} terms ({} read from database) in {} ms",
+                posts.size(), postings.size(), rows[0], System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        add(event.getPostId(), FeedCursor.toEpochMicros(event.getCreatedAt()), event.getContent());
+    }
+
+    @TransactionalEventListener
+    public void onPostsImported(PostsImportedEvent event) {
+        Map<String, List<Long>> byTerm = new HashMap<>();
+        for (PostCreatedEvent post : event.getPosts()) {
+            String[] tokens = tokenize(post.getContent());
+            posts.put(post.getPostId(), new IndexedPost(FeedCursor.toEpochMicros(post.getCreatedAt()), tokens));
+            for (String token : tokens) {
+                byTerm.computeIfAbsent(token, t -> new ArrayList<>()).add(post.getPostId());
+            }
+        }
+        byTerm.forEach((term, postIds) -> {
+            long[] micros = new long[postIds.size()];
+            long[] ids = new long[postIds.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = postIds.get(i);
+                micros[i] = posts.get(ids[i]).micros;
+            }
+            postings.computeIfAbsent(term, t -> new PostingList()).addAll(micros, ids);
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Post ids matching every bare term and every quoted phrase in
+     * {@code query}, strictly older than the given position, newest first.
+     * At most {@code minitwitter.search.max-candidates} posts are checked per
+     * call; if that runs out first the result carries the position to resume from.
+     */
+    public Result search(String query, long beforeMicros, long beforeId, int limit) {
+        List<String[]> phrases = new ArrayList<>();
+        Matcher matcher = PHRASE.matcher(query);
+        StringBuilder bare = new StringBuilder();
+        int last = 0;
+        while (matcher.find()) {
+            bare.append(query, last, matcher.start()).append(' ');
+            String[] phrase = tokenize(matcher.group(1));
+            if (phrase.length > 0) {
+                phrases.add(phrase);
+            }
+            last = matcher.end();
+        }
+        bare.append(query.substring(last));
+
+        List<String> terms = new ArrayList<>(Arrays.asList(tokenize(bare.toString())));
+        for (String[] phrase : phrases) {
+            terms.addAll(Arrays.asList(phrase));
+        }
+        if (terms.isEmpty()) {
+            throw new RuntimeException("Query is empty");
+        }
+
+        PostingList driver = null;
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                return new Result(List.of(), null);
+            }
+            if (driver == null || list.size() < driver.size()) {
+                driver = list;
+            }
+        }
+
+        List<Long> matches = new ArrayList<>(limit);
+        long cursorMicros = beforeMicros;
+        long cursorId = beforeId;
+        int scanned = 0;
+        while (matches.size() < limit) {
+            if (scanned >= maxCandidates) {
+                return new Result(matches, new FeedCursor(FeedCursor.fromEpochMicros(cursorMicros), cursorId));
+            }
+            int chunk = Math.min(SCAN_CHUNK, maxCandidates - scanned);
+            List<Long> candidates = driver.before(cursorMicros, cursorId, chunk);
+            scanned += candidates.size();
+            for (Long id : candidates) {
+                IndexedPost post = posts.get(id);
+                if (post != null && post.matches(terms, phrases)) {
+                    matches.add(id);
+                    if (matches.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            if (candidates.size() < chunk) {
+                break;
+            }
+            Long lastId = candidates.get(candidates.size() - 1);
+            cursorMicros = posts.get(lastId).micros;
+            cursorId = lastId;
+        }
+        return new Result(matches, null);
+    }
+
+    private void add(long postId, long createdAtMicros, String content) {
+        String[] tokens = tokenize(content);
+        posts.put(postId, new IndexedPost(createdAtMicros, tokens));
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> new PostingList()).add(createdAtMicros, postId);
+        }
+    }
+
+    static String[] tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (current.length() < MAX_TOKEN_LENGTH) {
+                    current.append(Character.toLowerCase(c));
+                }
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    @Scheduled(fixedDelayString = "${minitwitter.search.snapshot-interval-ms:300000}",
+            initialDelayString = "${minitwitter.search.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        if (!ready || snapshotPath.isBlank()) {
+            return;
+        }
+        Path target = Paths.get(snapshotPath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long start = System.currentTimeMillis();
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            List<Map.Entry<Long, IndexedPost>> entries = new ArrayList<>(posts.entrySet());
+            long watermark = 0;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temp))))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<Long, IndexedPost> entry : entries) {
+                    out.writeLong(entry.getKey());
+                    out.writeLong(entry.getValue().micros);
+                    out.writeUTF(String.join(" ", entry.getValue().tokens));
+                    watermark = Math.max(watermark, entry.getKey());
+                }
+                out.writeLong(watermark);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Search index snapshot of {} posts written in {} ms",
+                    entries.size(), System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            log.warn("Could not write search index snapshot to {}: {}", target, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        snapshot();
+    }
+
+    /** Loads the snapshot if it is usable and returns the highest post id it covers. */
+    private long restoreSnapshot(long maxPostId) {
+        if (snapshotPath.isBlank() || !Files.exists(Paths.get(snapshotPath))) {
+            return 0;
+        }
+        Map<Long, IndexedPost> restored = new ConcurrentHashMap<>();
+        long watermark;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(Paths.get(snapshotPath)))))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring search index snapshot with unknown format");
+                return 0;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                long micros = in.readLong();
+                String joined = in.readUTF();
+                restored.put(id, new IndexedPost(micros, joined.isEmpty() ? new String[0] : joined.split(" ")));
+            }
+            watermark = in.readLong();
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable search index snapshot: {}", e.getMessage());
+            return 0;
+        }
+
+        if (watermark > maxPostId) {
+            // The snapshot is ahead of the database, e.g. after an in-memory database restart
+            log.warn("Ignoring search index snapshot newer than the database");
+            return 0;
+        }
+        for (Map.Entry<Long, IndexedPost> entry : restored.entrySet()) {
+            IndexedPost post = entry.getValue();
+            posts.put(entry.getKey(), post);
+            for (String token : post.tokens) {
+                postings.computeIfAbsent(token, t -> new PostingList()).add(post.micros, entry.getKey());
+            }
+        }
+        return watermark;
+    }
+
+    public static final class Result {
+        private final List<Long> postIds;
+        private final FeedCursor resumeAt;
+
+        private Result(List<Long> postIds, FeedCursor resumeAt) {
+            this.postIds = postIds;
+            this.resumeAt = resumeAt;
+        }
+
+        public List<Long> getPostIds() { return postIds; }
+
+        /** Where scanning stopped when the candidate budget ran out, or null if the scan was complete. */
+        public FeedCursor getResumeAt() { return resumeAt; }
+    }
+
+    private static final class IndexedPost {
+        private final long micros;
+        private final String[] tokens;
+
+        private IndexedPost(long micros, String[] tokens) {
+            this.micros = micros;
+            this.tokens = tokens;
+        }
+
+        private boolean matches(List<String> terms, List<String[]> phrases) {
+            for (String term : terms) {
+                if (!Arrays.asList(tokens).contains(term)) {
+                    return false;
+                }
+            }
+            for (String[] phrase : phrases) {
+                if (!containsPhrase(phrase)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean containsPhrase(String[] phrase) {
+            outer:
+            for (int start = 0; start + phrase.length <= tokens.length; start++) {
+                for (int i = 0; i < phrase.length; i++) {
+                    if (!tokens[start + i].equals(phrase[i])) {
+                        continue outer;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+}
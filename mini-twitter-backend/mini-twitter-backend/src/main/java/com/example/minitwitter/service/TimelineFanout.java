@@ -0,0 +1,63 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.dto.FeedCursor;
+import com.example.minitwitter.entity.User;
+import com.example.minitwitter.event.FollowChangedEvent;
+import com.example.minitwitter.event.PostCreatedEvent;
+import com.example.minitwitter.event.PostsImportedEvent;
+import com.example.minitwitter.repository.FollowRepository;
+import com.example.minitwitter.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Fan-out on write: once a post commits, its id is pushed into the resident
+ * home timeline of the author and of every follower, unless the author is
+ * above the celebrity threshold.
+ */
+@Component
+public class TimelineFanout {
+
+    @Autowired
+    private TimelineStore timelineStore;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${minitwitter.timeline.celebrity-threshold:10000}")
+    private int celebrityThreshold;
+
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        long micros = FeedCursor.toEpochMicros(event.getCreatedAt());
+        long postId = event.getPostId();
+        timelineStore.push(event.getAuthorId(), micros, postId);
+
+        int followers = userRepository.findById(event.getAuthorId())
+                .map(User::getFollowerCount)
+                .orElse(0);
+        if (followers == 0 || followers >= celebrityThreshold) {
+            return;
+        }
+        for (Long followerId : followRepository.findFollowerIds(event.getAuthorId())) {
+            timelineStore.push(followerId, micros, postId);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onPostsImported(PostsImportedEvent event) {
+        // Imported posts can land anywhere in anyone's timeline; let readers rebuild
+        timelineStore.invalidateAll();
+    }
+
+    @TransactionalEventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        // Backfilling or purging one author's posts in place is not worth it; rebuild lazily
+        timelineStore.invalidate(event.getFollowerId());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.dto.FeedCursor;
+import com.example.minitwitter.dto.FeedPage;
+import com.example.minitwitter.repository.FollowRepository;
+import com.example.minitwitter.repository.PostKey;
+import com.example.minitwitter.repository.PostRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads home timelines materialized by {@link TimelineFanout}. Posts by
+ * followed authors above the celebrity threshold are never fanned out and
+ * are merged in here at read time instead.
+ */
+@Service
+@Timed("minitwitter.service")
+@Transactional
+public class TimelineService {
+
+    @Autowired
+    private TimelineStore timelineStore;
+
+    @Autowired
+    private FeedHydrator feedHydrator;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Value("${minitwitter.timeline.celebrity-threshold:10000}")
+    private int celebrityThreshold;
+
+    @Transactional(readOnly = true)
+    public FeedPage getHomeTimeline(Long userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, PostService.MAX_PAGE_SIZE));
+        int window = pageSize + 1;
+        FeedCursor position = cursor == null || cursor.isEmpty() ? null : FeedCursor.decode(cursor);
+        long beforeMicros = position != null ? position.getCreatedAtMicros() : Long.MAX_VALUE;
+        long beforeId = position != null ? position.getId() : Long.MAX_VALUE;
+
+        HomeTimeline timeline = residentTimeline(userId);
+        List<long[]> entries = new ArrayList<>(timeline.before(beforeMicros, beforeId, window));
+
+        if (entries.size() < window && timeline.isTruncated() && (position != null || !entries.isEmpty())) {
+            // The ring no longer reaches this far back; continue from the database
+            long[] from = entries.isEmpty() ?
+                    new long[]{beforeMicros, beforeId} : entries.get(entries.size() - 1);
+            List<PostKey> older = postRepository.findHomeTimelineKeysBefore(userId, celebrityThreshold,
+                    FeedCursor.fromEpochMicros(from[0]), from[1], PageRequest.of(0, window - entries.size()));
+            entries.addAll(toEntries(older));
+        }
+
+        List<Long> celebrities = followRepository.findFollowedCelebrityIds(userId, celebrityThreshold);
+        if (!celebrities.isEmpty()) {
+            List<PostKey> merged = position == null ?
+                    postRepository.findKeysByAuthors(celebrities, PageRequest.of(0, window)) :
+                    postRepository.findKeysByAuthorsBefore(celebrities, position.getCreatedAt(),
+                            position.getId(), PageRequest.of(0, window));
+            entries.addAll(toEntries(merged));
+            entries.sort((a, b) -> HomeTimeline.compare(b[0], b[1], a[0], a[1]));
+        }
+
+        List<Long> postIds = new ArrayList<>(window);
+        Set<Long> seen = new HashSet<>();
+        for (long[] entry : entries) {
+            if (postIds.size() == window) {
+                break;
+            }
+            if (seen.add(entry[1])) {
+                postIds.add(entry[1]);
+            }
+        }
+
+        return feedHydrator.hydratePage(postIds, pageSize, userId);
+    }
+
+    private HomeTimeline residentTimeline(Long userId) {
+        HomeTimeline timeline = timelineStore.get(userId);
+        if (timeline != null) {
+            return timeline;
+        }
+
+        int capacity = timelineStore.getCapacity();
+        List<PostKey> keys = postRepository.findHomeTimelineKeys(userId, celebrityThreshold,
+                PageRequest.of(0, capacity));
+        HomeTimeline rebuilt = new HomeTimeline(capacity);
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            PostKey key = keys.get(i);
+            rebuilt.push(FeedCursor.toEpochMicros(key.getCreatedAt()), key.getId());
+        }
+        if (keys.size() == capacity) {
+            rebuilt.markTruncated();
+        }
+        return timelineStore.install(userId, rebuilt);
+    }
+
+    private List<long[]> toEntries(List<PostKey> keys) {
+        List<long[]> entries = new ArrayList<>(keys.size());
+        for (PostKey key : keys) {
+            entries.add(new long[]{FeedCursor.toEpochMicros(key.getCreatedAt()), key.getId()});
+        }
+        return entries;
+    }
+}
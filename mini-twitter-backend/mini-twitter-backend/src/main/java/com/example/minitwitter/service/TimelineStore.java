@@ -0,0 +1,74 @@
+package com.example.minitwitter.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory home timelines, materialized only for users who have read their
+ * feed recently. Writers push into timelines that are already resident;
+ * everyone else gets a timeline rebuilt from the database on their next read.
+ */
+@Component
+public class TimelineStore {
+
+    private final Map<Long, HomeTimeline> timelines = new ConcurrentHashMap<>();
+
+    @Value("${minitwitter.timeline.capacity:800}")
+    private int capacity;
+
+    @Value("${minitwitter.timeline.max-resident:100000}")
+    private int maxResident;
+
+    @Value("${minitwitter.timeline.idle-eviction-minutes:60}")
+    private long idleEvictionMinutes;
+
+    public HomeTimeline get(Long userId) {
+        return timelines.get(userId);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public HomeTimeline install(Long userId, HomeTimeline timeline) {
+        HomeTimeline existing = timelines.putIfAbsent(userId, timeline);
+        return existing != null ? existing : timeline;
+    }
+
+    public void push(Long userId, long createdAtMicros, long postId) {
+        HomeTimeline timeline = timelines.get(userId);
+        if (timeline != null) {
+            timeline.push(createdAtMicros, postId);
+        }
+    }
+
+    public void invalidate(Long userId) {
+        timelines.remove(userId);
+    }
+
+    public void invalidateAll() {
+        timelines.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${minitwitter.timeline.eviction-interval-ms:300000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMinutes * 60_000L;
+        timelines.entrySet().removeIf(entry -> entry.getValue().getLastReadAt() < cutoff);
+
+        int excess = timelines.size() - maxResident;
+        if (excess > 0) {
+            List<Map.Entry<Long, HomeTimeline>> entries = new ArrayList<>(timelines.entrySet());
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue().getLastReadAt()));
+            for (int i = 0; i < excess && i < entries.size(); i++) {
+                timelines.remove(entries.get(i).getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.dto.UserPrincipal;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Issues and verifies HMAC-SHA256 signed tokens of the form
+ * {@code kid.payload.signature}, so any node holding the keys can
+ * authenticate a request without a session store or a database read.
+ * <p>
+ * {@code minitwitter.auth.signing-keys} is a comma-separated list of
+ * {@code kid=base64secret}; the first key signs and every listed key
+ * verifies. To rotate, put the new key first and drop the old one once the
+ * refresh TTL has passed. Access tokens carry the user id and username;
+ * refresh tokens only re-issue after the user is looked up again.
+ */
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte ACCESS = 'a';
+    private static final byte REFRESH = 'r';
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, Mac> keys = new LinkedHashMap<>();
+    private String signingKeyId;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Value("${minitwitter.auth.mode:session}")
+    private String authMode;
+
+    @Value("${minitwitter.auth.signing-keys:}")
+    private String signingKeys;
+
+    @Value("${minitwitter.auth.access-ttl-seconds:900}")
+    private long accessTtlSeconds;
+
+    @Value("${minitwitter.auth.refresh-ttl-seconds:604800}")
+    private long refreshTtlSeconds;
+
+    @PostConstruct
+    void loadKeys() throws GeneralSecurityException {
+        for (String entry : signingKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0 || entry.substring(0, separator).contains(".")) {
+                throw new IllegalStateException("Signing keys must be listed as kid=base64secret");
+            }
+            addKey(entry.substring(0, separator).trim(), Base64.getDecoder().decode(entry.substring(separator + 1).trim()));
+        }
+        if (keys.isEmpty()) {
+            byte[] secret = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(secret);
+            addKey("local", secret);
+            if ("token".equals(authMode)) {
+                log.warn("No minitwitter.auth.signing-keys configured; tokens are signed with a random key " +
+                        "and will not be accepted by other nodes or after a restart");
+            }
+        }
+        signingKeyId = keys.keySet().iterator().next();
+    }
+
+    public String issueAccessToken(UserPrincipal principal) {
+        return sign(ACCESS, principal, accessTtlSeconds);
+    }
+
+    public String issueRefreshToken(UserPrincipal principal) {
+        return sign(REFRESH, principal, refreshTtlSeconds);
+    }
+
+    public long getAccessTtlSeconds() { return accessTtlSeconds; }
+
+    public UserPrincipal verifyAccessToken(String token) {
+        return verify(token, ACCESS);
+    }
+
+    /**
+     * Verifies a refresh token and reloads the user so deleted accounts stop
+     * refreshing. The caller issues a new token pair from the result.
+     */
+    public UserPrincipal verifyRefreshToken(String token) {
+        UserPrincipal claimed = verify(token, REFRESH);
+        return userCache.get(claimed.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    private String sign(byte type, UserPrincipal principal, long ttlSeconds) {
+        byte[] username = principal.getUsername().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(1 + Long.BYTES * 2 + username.length)
+                .put(type)
+                .putLong(principal.getId())
+                .putLong(System.currentTimeMillis() / 1000 + ttlSeconds)
+                .put(username);
+        String unsigned = signingKeyId + "." + ENCODER.encodeToString(payload.array());
+        return unsigned + "." + ENCODER.encodeToString(mac(signingKeyId).doFinal(unsigned.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private UserPrincipal verify(String token, byte expectedType) {
+        int first = token.indexOf('.');
+        int last = token.lastIndexOf('.');
+        if (first <= 0 || last == first) {
+            throw new RuntimeException("Invalid token");
+        }
+        String keyId = token.substring(0, first);
+        if (!keys.containsKey(keyId)) {
+            throw new RuntimeException("Invalid token");
+        }
+
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(first + 1, last));
+            signature = DECODER.decode(token.substring(last + 1));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid token");
+        }
+        byte[] expected = mac(keyId).doFinal(token.substring(0, last).getBytes(StandardCharsets.US_ASCII));
+        if (!MessageDigest.isEqual(expected, signature) || payload.length < 1 + Long.BYTES * 2) {
+            throw new RuntimeException("Invalid token");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        if (buffer.get() != expectedType) {
+            throw new RuntimeException("Invalid token");
+        }
+        long userId = buffer.getLong();
+        if (buffer.getLong() < System.currentTimeMillis() / 1000) {
+            throw new RuntimeException("Token expired");
+        }
+        String username = new String(payload, buffer.position(), buffer.remaining(), StandardCharsets.UTF_8);
+        return new UserPrincipal(userId, username, null);
+    }
+
+    private void addKey(String keyId, byte[] secret) throws GeneralSecurityException {
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("Signing key " + keyId + " must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(new SecretKeySpec(secret, ALGORITHM));
+        keys.put(keyId, mac);
+    }
+
+    /** Initialised Mac instances are not thread-safe; each call works on a copy. */
+    private Mac mac(String keyId) {
+        try {
+            return (Mac) keys.get(keyId).clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.minitwitter.service;
+
+/**
+ * Thrown when a request is refused to protect a bounded resource;
+ * controllers answer it with 429 and a {@code Retry-After} header.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
@@ -0,0 +1,50 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.dto.TrendingHashtag;
+import com.example.minitwitter.event.PostCreatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming trending-hashtag engine. Every committed post feeds its tags into
+ * 5-minute, 1-hour and 24-hour sliding windows; reads are served from a
+ * per-window ranking snapshot and never touch the database.
+ */
+@Service
+public class TrendingService {
+
+    public static final int MAX_RESULTS = 50;
+
+    private final Map<String, TrendingWindow> windows = new LinkedHashMap<>();
+
+    public TrendingService(@Value("${minitwitter.trending.candidates-per-bucket:100}") int candidates,
+                           @Value("${minitwitter.trending.snapshot-ms:1000}") long snapshotMillis) {
+        windows.put("5m", new TrendingWindow(5, 60_000L, candidates, snapshotMillis));
+        windows.put("1h", new TrendingWindow(12, 300_000L, candidates, snapshotMillis));
+        windows.put("24h", new TrendingWindow(24, 3_600_000L, candidates, snapshotMillis));
+    }
+
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        long now = System.currentTimeMillis();
+        for (String tag : event.getHashtags()) {
+            for (TrendingWindow window : windows.values()) {
+                window.add(tag, now);
+            }
+        }
+    }
+
+    public List<TrendingHashtag> getTrending(String window, int limit) {
+        TrendingWindow trendingWindow = windows.get(window);
+        if (trendingWindow == null) {
+            throw new RuntimeException("Unknown window: " + window + " (expected one of " + windows.keySet() + ")");
+        }
+        int size = Math.max(1, Math.min(limit, MAX_RESULTS));
+        return trendingWindow.top(size, System.currentTimeMillis());
+    }
+}
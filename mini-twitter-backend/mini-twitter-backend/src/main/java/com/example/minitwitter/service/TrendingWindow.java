@@ -0,0 +1,124 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.dto.TrendingHashtag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Sliding time window of hashtag counts made of fixed-width buckets. Each
+ * bucket holds a count-min sketch plus a bounded set of heavy-hitter
+ * candidates, so memory stays constant however many distinct tags appear.
+ */
+public class TrendingWindow {
+
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 2048;
+
+    private final long bucketMillis;
+    private final Bucket[] buckets;
+    private final int candidatesPerBucket;
+    private final long snapshotMillis;
+
+    private List<TrendingHashtag> snapshot = Collections.emptyList();
+    private long snapshotAt;
+
+    public TrendingWindow(int bucketCount, long bucketMillis, int candidatesPerBucket, long snapshotMillis) {
+        this.bucketMillis = bucketMillis;
+        this.candidatesPerBucket = candidatesPerBucket;
+        this.snapshotMillis = snapshotMillis;
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    public synchronized void add(String tag, long nowMillis) {
+        Bucket bucket = current(nowMillis);
+        bucket.sketch.add(tag);
+        int estimate = bucket.sketch.estimate(tag);
+
+        Map<String, Integer> candidates = bucket.candidates;
+        if (candidates.containsKey(tag) || candidates.size() < candidatesPerBucket) {
+            candidates.put(tag, estimate);
+            return;
+        }
+        String weakest = null;
+        int weakestCount = Integer.MAX_VALUE;
+        for (Map.Entry<String, Integer> entry : candidates.entrySet()) {
+            if (entry.getValue() < weakestCount) {
+                weakest = entry.getKey();
+                weakestCount = entry.getValue();
+            }
+        }
+        if (estimate > weakestCount) {
+            candidates.remove(weakest);
+            candidates.put(tag, estimate);
+        }
+    }
+
+    /**
+     * Top tags across the live buckets. The ranking is recomputed at most
+     * once per snapshot interval; other calls return the cached list.
+     */
+    public synchronized List<TrendingHashtag> top(int limit, long nowMillis) {
+        if (nowMillis - snapshotAt >= snapshotMillis) {
+            snapshot = rank(candidatesPerBucket, nowMillis);
+            snapshotAt = nowMillis;
+        }
+        return snapshot.subList(0, Math.min(limit, snapshot.size()));
+    }
+
+    private List<TrendingHashtag> rank(int limit, long nowMillis) {
+        long currentEpoch = nowMillis / bucketMillis;
+        List<Bucket> live = new ArrayList<>(buckets.length);
+        Set<String> tags = new HashSet<>();
+        for (Bucket bucket : buckets) {
+            if (bucket.epoch > currentEpoch - buckets.length && bucket.epoch <= currentEpoch) {
+                live.add(bucket);
+                tags.addAll(bucket.candidates.keySet());
+            }
+        }
+
+        Comparator<TrendingHashtag> byCount = Comparator.comparingLong(TrendingHashtag::getCount);
+        PriorityQueue<TrendingHashtag> heap = new PriorityQueue<>(limit + 1, byCount);
+        for (String tag : tags) {
+            long total = 0;
+            for (Bucket bucket : live) {
+                total += bucket.sketch.estimate(tag);
+            }
+            heap.add(new TrendingHashtag(tag, total));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        List<TrendingHashtag> ranked = new ArrayList<>(heap);
+        ranked.sort(byCount.reversed().thenComparing(TrendingHashtag::getTag));
+        return ranked;
+    }
+
+    private Bucket current(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        Bucket bucket = buckets[(int) (epoch % buckets.length)];
+        if (bucket.epoch != epoch) {
+            bucket.epoch = epoch;
+            bucket.sketch.clear();
+            bucket.candidates.clear();
+        }
+        return bucket;
+    }
+
+    private static final class Bucket {
+        private long epoch = Long.MIN_VALUE;
+        private final CountMinSketch sketch = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+        private final Map<String, Integer> candidates = new HashMap<>();
+    }
+}
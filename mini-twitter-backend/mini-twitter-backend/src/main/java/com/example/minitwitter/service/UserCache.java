@@ -0,0 +1,92 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.dto.UserPrincipal;
+import com.example.minitwitter.event.UserProfileChangedEvent;
+import com.example.minitwitter.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU cache of user identities by id and by username. Entries are
+ * immutable {@link UserPrincipal}s and are dropped once a profile change
+ * commits.
+ */
+@Component
+public class UserCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${minitwitter.user-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<Long, UserPrincipal> byId = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, UserPrincipal> eldest) {
+            if (size() > maxSize) {
+                byUsername.remove(eldest.getValue().getUsername());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final Map<String, UserPrincipal> byUsername = new LinkedHashMap<>();
+
+    // Bumped on every eviction so a load that raced with it is not cached
+    private long evictions;
+
+    public Optional<UserPrincipal> get(Long userId) {
+        long seen;
+        synchronized (this) {
+            UserPrincipal cached = byId.get(userId);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            seen = evictions;
+        }
+        return userRepository.findById(userId).map(user -> put(new UserPrincipal(user), seen));
+    }
+
+    public Optional<UserPrincipal> getByUsername(String username) {
+        long seen;
+        synchronized (this) {
+            UserPrincipal cached = byUsername.get(username);
+            if (cached != null) {
+                // Touch the id entry so LRU order follows either lookup
+                byId.get(cached.getId());
+                return Optional.of(cached);
+            }
+            seen = evictions;
+        }
+        return userRepository.findByUsername(username).map(user -> put(new UserPrincipal(user), seen));
+    }
+
+    public synchronized void evict(Long userId) {
+        evictions++;
+        UserPrincipal removed = byId.remove(userId);
+        if (removed != null) {
+            byUsername.remove(removed.getUsername());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        evict(event.getUserId());
+    }
+
+    private synchronized UserPrincipal put(UserPrincipal principal, long seen) {
+        if (evictions != seen) {
+            return principal;
+        }
+        byUsername.put(principal.getUsername(), principal);
+        byId.put(principal.getId(), principal);
+        return principal;
+    }
+}
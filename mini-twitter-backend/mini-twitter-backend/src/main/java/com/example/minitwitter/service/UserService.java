@@ -0,0 +1,36 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.dto.ProfileUpdateRequest;
+import com.example.minitwitter.dto.UserPrincipal;
+import com.example.minitwitter.entity.User;
+import com.example.minitwitter.event.UserProfileChangedEvent;
+import com.example.minitwitter.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Timed("minitwitter.service")
+@Transactional
+public class UserService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public UserPrincipal updateProfile(Long userId, ProfileUpdateRequest request) {
+        if (request.getFullName() == null || request.getFullName().isBlank()) {
+            throw new RuntimeException("Full name is required");
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        user.setFullName(request.getFullName().trim());
+        eventPublisher.publishEvent(new UserProfileChangedEvent(user.getId(), user.getUsername()));
+        return new UserPrincipal(user);
+    }
+}
@@ -0,0 +1,67 @@
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    full_name VARCHAR(255),
+    created_at TIMESTAMP(6),
+    follower_count INTEGER NOT NULL,
+    following_count INTEGER NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE posts (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    content VARCHAR(280) NOT NULL,
+    user_id BIGINT NOT NULL,
+    created_at TIMESTAMP(6),
+    like_count INTEGER NOT NULL,
+    comment_count INTEGER NOT NULL,
+    CONSTRAINT fk_posts_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE hashtags (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tag VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6),
+    CONSTRAINT uk_hashtags_tag UNIQUE (tag)
+);
+
+CREATE TABLE post_hashtags (
+    post_id BIGINT NOT NULL,
+    hashtag_id BIGINT NOT NULL,
+    CONSTRAINT fk_post_hashtags_post FOREIGN KEY (post_id) REFERENCES posts (id),
+    CONSTRAINT fk_post_hashtags_hashtag FOREIGN KEY (hashtag_id) REFERENCES hashtags (id)
+);
+
+CREATE TABLE likes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    post_id BIGINT NOT NULL,
+    created_at TIMESTAMP(6),
+    CONSTRAINT fk_likes_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_likes_post FOREIGN KEY (post_id) REFERENCES posts (id)
+);
+
+CREATE TABLE comments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    content VARCHAR(280) NOT NULL,
+    user_id BIGINT NOT NULL,
+    post_id BIGINT NOT NULL,
+    parent_id BIGINT,
+    reply_count INTEGER NOT NULL,
+    created_at TIMESTAMP(6),
+    CONSTRAINT fk_comments_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_comments_post FOREIGN KEY (post_id) REFERENCES posts (id),
+    CONSTRAINT fk_comments_parent FOREIGN KEY (parent_id) REFERENCES comments (id)
+);
+
+CREATE TABLE follows (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    follower_id BIGINT NOT NULL,
+    followee_id BIGINT NOT NULL,
+    created_at TIMESTAMP(6),
+    CONSTRAINT fk_follows_follower FOREIGN KEY (follower_id) REFERENCES users (id),
+    CONSTRAINT fk_follows_followee FOREIGN KEY (followee_id) REFERENCES users (id)
+);
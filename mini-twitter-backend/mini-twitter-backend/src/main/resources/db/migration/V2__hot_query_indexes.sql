@@ -0,0 +1,19 @@
+-- Feeds read newest first and H2 never walks an index backwards, so these are declared descending
+CREATE INDEX idx_posts_created_at_id ON posts (created_at DESC, id DESC);
+-- Profile pages and the home timeline's per-author reads
+CREATE INDEX idx_posts_user_created_at ON posts (user_id, created_at DESC, id DESC);
+
+-- Leads with hashtag_id so a tag page reads its post ids without touching posts
+CREATE INDEX idx_post_hashtags_hashtag_post ON post_hashtags (hashtag_id, post_id);
+CREATE INDEX idx_post_hashtags_post ON post_hashtags (post_id);
+
+-- The viewer's liked flags are read as user_id = ? AND post_id IN (...)
+ALTER TABLE likes ADD CONSTRAINT uk_likes_user_post UNIQUE (user_id, post_id);
+CREATE INDEX idx_likes_post ON likes (post_id);
+
+CREATE INDEX idx_comments_post_parent_created ON comments (post_id, parent_id, created_at DESC, id DESC);
+-- Replies read oldest first
+CREATE INDEX idx_comments_parent_created ON comments (parent_id, created_at, id);
+
+ALTER TABLE follows ADD CONSTRAINT uk_follows_follower_followee UNIQUE (follower_id, followee_id);
+CREATE INDEX idx_follows_followee ON follows (followee_id);
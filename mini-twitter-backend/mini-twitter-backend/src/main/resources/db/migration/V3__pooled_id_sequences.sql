@@ -0,0 +1,10 @@
+-- Posts, likes and comments take ids from pooled sequences so inserts can be batched.
+-- Each value reserves the 50 ids starting at it; existing rows keep their ids.
+ALTER TABLE posts ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE posts_seq START WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM posts) INCREMENT BY 50;
+
+ALTER TABLE likes ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE likes_seq START WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM likes) INCREMENT BY 50;
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE comments_seq START WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM comments) INCREMENT BY 50;
@@ -0,0 +1,5 @@
+-- One row the primary stamps with the current time; a replica's lag is the age of the stamp it returns.
+CREATE TABLE replica_heartbeat (
+    id INT PRIMARY KEY,
+    beat_at BIGINT NOT NULL
+);
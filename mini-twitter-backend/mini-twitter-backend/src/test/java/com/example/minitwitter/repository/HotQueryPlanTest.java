@@ -0,0 +1,75 @@
+package com.example.minitwitter.repository;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Runs H2's {@code EXPLAIN} over the SQL shapes of the hot feed, like and
+ * comment queries against the schema the Flyway migrations build, and fails
+ * if any of them plans a table scan.
+ */
+@JdbcTest(properties = "spring.flyway.enabled=true")
+class HotQueryPlanTest {
+
+    private static final String TABLE_SCAN = ".tableScan";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of("feed first page",
+                        "SELECT id FROM posts ORDER BY created_at DESC, id DESC FETCH FIRST 20 ROWS ONLY"),
+                Arguments.of("feed page before cursor",
+                        "SELECT id FROM posts WHERE created_at < TIMESTAMP '2024-01-01 00:00:00' " +
+                        "OR (created_at = TIMESTAMP '2024-01-01 00:00:00' AND id < 1000) " +
+                        "ORDER BY created_at DESC, id DESC FETCH FIRST 20 ROWS ONLY"),
+                Arguments.of("feed rows",
+                        "SELECT p.id, p.content, u.username, " +
+                        "(SELECT LISTAGG(h.tag, ',') WITHIN GROUP (ORDER BY h.id) FROM post_hashtags ph " +
+                        "JOIN hashtags h ON h.id = ph.hashtag_id WHERE ph.post_id = p.id), " +
+                        "EXISTS (SELECT 1 FROM likes l WHERE l.post_id = p.id AND l.user_id = 1) " +
+                        "FROM posts p JOIN users u ON u.id = p.user_id WHERE p.id IN (1, 2, 3)"),
+                Arguments.of("posts by author",
+                        "SELECT id, created_at FROM posts WHERE user_id IN (1, 2, 3) " +
+                        "ORDER BY created_at DESC, id DESC FETCH FIRST 20 ROWS ONLY"),
+                Arguments.of("hashtag page",
+                        "SELECT p.id FROM posts p JOIN post_hashtags ph ON ph.post_id = p.id " +
+                        "JOIN hashtags h ON h.id = ph.hashtag_id WHERE h.tag = 'java' " +
+                        "ORDER BY p.created_at DESC, p.id DESC"),
+                Arguments.of("post tags",
+                        "SELECT h.tag FROM post_hashtags ph JOIN hashtags h ON h.id = ph.hashtag_id " +
+                        "WHERE ph.post_id = 1"),
+                Arguments.of("liked flags",
+                        "SELECT post_id FROM likes WHERE user_id = 1 AND post_id IN (1, 2, 3)"),
+                Arguments.of("like exists",
+                        "SELECT 1 FROM likes WHERE user_id = 1 AND post_id = 1"),
+                Arguments.of("top-level comments",
+                        "SELECT c.id FROM comments c JOIN users u ON u.id = c.user_id " +
+                        "WHERE c.post_id = 1 AND c.parent_id IS NULL " +
+                        "ORDER BY c.created_at DESC, c.id DESC FETCH FIRST 20 ROWS ONLY"),
+                Arguments.of("comment replies",
+                        "SELECT c.id FROM comments c JOIN users u ON u.id = c.user_id WHERE c.parent_id = 1 " +
+                        "ORDER BY c.created_at, c.id FETCH FIRST 20 ROWS ONLY"),
+                Arguments.of("followers",
+                        "SELECT follower_id FROM follows WHERE followee_id = 1"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void usesAnIndex(String name, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+        assertNotNull(plan);
+        assertFalse(plan.contains(TABLE_SCAN), () -> name + " scans a table:\n" + plan);
+    }
+}
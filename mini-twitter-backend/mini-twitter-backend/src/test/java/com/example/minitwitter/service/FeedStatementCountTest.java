@@ -0,0 +1,120 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.config.StatementCounter;
+import com.example.minitwitter.dto.CommentRequest;
+import com.example.minitwitter.dto.FeedPage;
+import com.example.minitwitter.dto.PostRequest;
+import com.example.minitwitter.dto.PostResponse;
+import com.example.minitwitter.dto.RegisterRequest;
+import com.example.minitwitter.entity.User;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A feed page must cost the same number of SQL statements whatever its
+ * size: authors, tags, counts and liked flags are filled in per page, never
+ * per post. {@link StatementCounter} counts at the JDBC layer, so the
+ * hydrator's {@code JdbcTemplate} queries are included.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:feed-statements")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// Closed afterwards: contexts in one JVM share the default JCache manager and its region names
+@DirtiesContext
+class FeedStatementCountTest {
+
+    private static final int POSTS = 30;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Long viewerId;
+
+    @BeforeAll
+    void seed() {
+        List<User> authors = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            authors.add(authService.register(registration("author" + i), "127.0.0.1"));
+        }
+        viewerId = authService.register(registration("viewer"), "127.0.0.1").getId();
+
+        for (int i = 0; i < POSTS; i++) {
+            PostRequest request = new PostRequest();
+            request.setContent("post " + i + " #feed #tag" + (i % 4));
+            PostResponse post = postService.createPost(request, authors.get(i % authors.size()).getId());
+            if (i % 2 == 0) {
+                likeService.like(post.getId(), viewerId);
+            }
+            if (i % 3 == 0) {
+                CommentRequest comment = new CommentRequest();
+                comment.setContent("comment on " + i);
+                commentService.createComment(post.getId(), comment, viewerId);
+            }
+        }
+        likeWriteBuffer.flush();
+    }
+
+    @Test
+    void feedPageStatementCountDoesNotGrowWithPageSize() {
+        int small = statementsForFirstPage(5);
+        int large = statementsForFirstPage(25);
+
+        assertEquals(small, large, "statements per feed page grew with the page size");
+        assertTrue(large <= 2, "a feed page issued " + large + " statements");
+    }
+
+    @Test
+    void hydratedPageCarriesAuthorsTagsCountsAndLikes() {
+        FeedPage page = postService.getFeedPage(null, POSTS, viewerId);
+
+        assertEquals(POSTS, page.getPosts().size());
+        for (PostResponse post : page.getPosts()) {
+            int index = Integer.parseInt(post.getContent().split(" ")[1]);
+            assertEquals("author" + (index % 3), post.getUsername());
+            assertEquals(List.of("feed", "tag" + (index % 4)), post.getHashtags());
+            assertEquals(index % 2 == 0, post.isLikedByCurrentUser());
+            assertEquals(index % 2 == 0 ? 1 : 0, post.getLikeCount());
+            assertEquals(index % 3 == 0 ? 1 : 0, post.getCommentCount());
+        }
+    }
+
+    private int statementsForFirstPage(int limit) {
+        statementCounter.reset();
+        FeedPage page = postService.getFeedPage(null, limit, viewerId);
+        assertEquals(limit, page.getPosts().size());
+        return statementCounter.get();
+    }
+
+    private static RegisterRequest registration(String username) {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(username);
+        request.setEmail(username + "@example.com");
+        request.setPassword("password");
+        request.setFullName(username);
+        return request;
+    }
+}
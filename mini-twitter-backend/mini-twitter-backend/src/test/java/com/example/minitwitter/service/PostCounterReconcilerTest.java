@@ -0,0 +1,89 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.dto.CommentRequest;
+import com.example.minitwitter.dto.PostRequest;
+import com.example.minitwitter.dto.RegisterRequest;
+import com.example.minitwitter.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rows whose counter deltas are still buffered must not be counted twice
+ * when a post is recounted before the buffer flushes, as happens to writes
+ * that commit while the reconciler runs.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:counter-reconcile",
+        "minitwitter.counters.flush-interval-ms=3600000",
+        "minitwitter.likes.flush-interval-ms=3600000"})
+@DirtiesContext
+class PostCounterReconcilerTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private PostCounterBuffer postCounterBuffer;
+
+    @Autowired
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Autowired
+    private PostCounterReconciler postCounterReconciler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void pendingDeltasAreNotCountedTwice() {
+        User author = authService.register(registration("reconcile-author"), "127.0.0.1");
+        User reader = authService.register(registration("reconcile-reader"), "127.0.0.1");
+        PostRequest request = new PostRequest();
+        request.setContent("counted once");
+        Long postId = postService.createPost(request, author.getId()).getId();
+
+        CommentRequest comment = new CommentRequest();
+        comment.setContent("first");
+        commentService.createComment(postId, comment, reader.getId());
+        likeService.like(postId, reader.getId());
+        likeWriteBuffer.flush();
+        // Committed with its delta still pending: a comment row and a like that is only buffered
+        commentService.createComment(postId, comment, author.getId());
+        likeService.like(postId, author.getId());
+
+        postCounterBuffer.recount(postId, likeWriteBuffer.unwrittenLikes(postId));
+        likeWriteBuffer.flush();
+        postCounterBuffer.flush();
+
+        assertEquals(2, count("like_count", postId));
+        assertEquals(2, count("comment_count", postId));
+        assertEquals(0, postCounterReconciler.reconcile());
+    }
+
+    private int count(String column, Long postId) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM posts WHERE id = ?", Integer.class, postId);
+    }
+
+    private static RegisterRequest registration(String username) {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(username);
+        request.setEmail(username + "@example.com");
+        request.setPassword("password");
+        request.setFullName(username);
+        return request;
+    }
+}
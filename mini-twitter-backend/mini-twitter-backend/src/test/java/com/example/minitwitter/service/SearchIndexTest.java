@@ -0,0 +1,65 @@
+package com.example.minitwitter.service;
+
+import com.example.minitwitter.dto.FeedCursor;
+import com.example.minitwitter.event.PostCreatedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * A query whose terms are common but rarely co-occur must stop after the
+ * candidate budget and resume from where it stopped, not walk the whole list.
+ */
+class SearchIndexTest {
+
+    @Test
+    void exhaustedBudgetReturnsPartialPageWithResumePosition() {
+        SearchIndex index = new SearchIndex();
+        ReflectionTestUtils.setField(index, "maxCandidates", 1000);
+
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (long id = 1; id <= 3000; id++) {
+            String content = id == 10 ? "apple banana" : id % 2 == 0 ? "apple pie" : "banana split";
+            index.onPostCreated(new PostCreatedEvent(id, 1L, content, base.plusSeconds(id), List.of()));
+        }
+
+        List<Long> found = new ArrayList<>();
+        long beforeMicros = Long.MAX_VALUE;
+        long beforeId = Long.MAX_VALUE;
+        int calls = 0;
+        SearchIndex.Result result;
+        do {
+            result = index.search("apple banana", beforeMicros, beforeId, 20);
+            found.addAll(result.getPostIds());
+            calls++;
+            FeedCursor resumeAt = result.getResumeAt();
+            if (resumeAt != null) {
+                beforeMicros = resumeAt.getCreatedAtMicros();
+                beforeId = resumeAt.getId();
+            }
+        } while (result.getResumeAt() != null);
+
+        assertEquals(List.of(10L), found);
+        // 1500 candidates on the driver list, 1000 per call
+        assertEquals(2, calls);
+    }
+
+    @Test
+    void completeScanHasNoResumePosition() {
+        SearchIndex index = new SearchIndex();
+        ReflectionTestUtils.setField(index, "maxCandidates", 1000);
+        index.onPostCreated(new PostCreatedEvent(1L, 1L, "apple banana", LocalDateTime.now(), List.of()));
+
+        SearchIndex.Result result = index.search("apple", Long.MAX_VALUE, Long.MAX_VALUE, 20);
+        assertEquals(List.of(1L), result.getPostIds());
+        assertNull(result.getResumeAt());
+        assertNotNull(index.search("pear", Long.MAX_VALUE, Long.MAX_VALUE, 20).getPostIds());
+    }
+}